@@ -8,6 +8,7 @@
  * component in the sudoku game application.
  ************************************************************************/
 
+import Model.Candidates;
 import Model.SudokuBoard;
 
 import javax.swing.*;
@@ -15,7 +16,6 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionListener;
-import java.util.LinkedList;
 
 /**
  * A special panel class to display a Sudoku board modeled by the SudokuBoard.java class
@@ -49,7 +49,7 @@ public class BoardPanel extends JPanel implements MouseMotionListener {
             public void mouseClicked(MouseEvent e) {
                 int xy = locateSquare(e.getX(), e.getY());
                 if (xy >= 0) {
-                    listener.clicked(xy / 100, xy % 100);
+                    listener.clicked(xy / BoardPanel.this.board.getSize(), xy % BoardPanel.this.board.getSize());
                 }
             }
         });
@@ -101,8 +101,8 @@ public class BoardPanel extends JPanel implements MouseMotionListener {
         if (p != null) {
             int square = locateSquare((int)p.getX(),(int)p.getY());
             if (square >= 0) {
-                int row = square/100;
-                int col = square%100;
+                int row = square/board.getSize();
+                int col = square%board.getSize();
                 g.setColor(Color.GREEN);
                 g.fillRect(squareSize*row, squareSize*col, row+squareSize - row, col+squareSize - col); // Subtracts pixels based on the number of lines occurring before cell
             }
@@ -137,7 +137,7 @@ public class BoardPanel extends JPanel implements MouseMotionListener {
 
         /*--------------------------------------------------------------------------------*/
         /*  Draw Model.Cell Numbers   */
-        g.setFont(new Font("Helvetica", Font.BOLD, 18));
+        g.setFont(new Font("Helvetica", Font.BOLD, Math.min(18, squareSize/2 + 2))); // Shrink font for large boards
         for (int i = 0; i < this.board.getSize(); i++) {
             for (int j = 0; j < this.board.getSize(); j++) {
                 String val = Integer.toString(this.board.getCell(i,j));
@@ -149,28 +149,28 @@ public class BoardPanel extends JPanel implements MouseMotionListener {
                         g.setColor(Color.BLACK);
                     }
                     int strWidth = g.getFontMetrics().stringWidth("0");
-                    g.drawString(val, squareSize*j+midpoint-strWidth/2+1, squareSize*i+midpoint+strWidth/2+1);
+                    int valWidth = g.getFontMetrics().stringWidth(val); // Center multi-digit numbers of large boards
+                    g.drawString(val, squareSize*j+midpoint-valWidth/2+1, squareSize*i+midpoint+strWidth/2+1);
                 }
             }
         }
 
         /*--------------------------------------------------------------------------------*/
         /*  Draw Possible Number Grid */
-        g.setFont(new Font("default", Font.BOLD, 11));
+        int size = this.board.getSize();
+        int slotSize = squareSize / sqrt_size; // Each cell is divided into a subsquare-sized grid of number slots
+        g.setFont(new Font("default", Font.BOLD, Math.min(11, slotSize - 1)));
         g.setColor(Color.MAGENTA);
         if (showPossibleNumbers) {
-            //TODO: Optimize possible number grid retrieval by implementing in place updates rather than repeated generation.
-            LinkedList<Integer>[][] grid = this.board.generatePossibleNumberGrid();
-            for (int i = 0; i < this.board.getSize(); i++) {
-                for (int j = 0; j < this.board.getSize(); j++) {
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
                     if (this.board.getCell(i,j) != 0) continue;
-                    LinkedList<Integer> cell = grid[i][j];
-                    for (int k = 0; k < cell.size(); k++) {
-                        //TODO: Fix Drawing Possible Number (spacing)
-                        String val = Integer.toString(cell.get(k));
+                    for (int mask = this.board.getCandidateMask(i,j); mask != 0; mask &= mask - 1) {
+                        int number = Candidates.lowest(mask);
+                        String val = Integer.toString(number);
                         int strWidth = g.getFontMetrics().stringWidth(val);
-                        int xPos = squareSize*j + ( strWidth * (k % 3) + strWidth ) ;
-                        int yPos = squareSize*i + ( strWidth * (k / 3) + strWidth+2 ) + strWidth;
+                        int xPos = squareSize*j + slotSize * ((number-1) % sqrt_size) + (slotSize - strWidth)/2 + 1;
+                        int yPos = squareSize*i + slotSize * ((number-1) / sqrt_size + 1) - 1;
                         g.drawString(val,xPos,yPos);
                     }
                 }
@@ -191,8 +191,8 @@ public class BoardPanel extends JPanel implements MouseMotionListener {
     /**
      * Given a screen coordinate, return the indexes of the corresponding square
      * or -1 if there is no square.
-     * The indexes are encoded and returned as x*100 + y, 
-     * where x and y are 0-based column/row indexes.
+     * The indexes are encoded and returned as x*size + y, where size is the
+     * board's side length and x and y are 0-based column/row indexes.
      */
     private int locateSquare(int x, int y) {
     	if (x < 0 || x >= board.getSize() * squareSize
@@ -201,6 +201,6 @@ public class BoardPanel extends JPanel implements MouseMotionListener {
     	}
     	int xx = x / squareSize;
     	int yy = y / squareSize;
-    	return xx * 100 + yy;
+    	return xx * board.getSize() + yy;
     }
 }
@@ -0,0 +1,101 @@
+/************************************************************************
+ * BacktrackingSolver.java                                              *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the original sudoku solving strategy: a plain     *
+ * backtracker that fills empty cells in row-major order, trying each   *
+ * cell's candidates in increasing order.                               *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Row-major backtracking solver. Candidates are computed once from the givens and every attempted number is
+ * validated against the row, column and subsquare occupancy masks.
+ */
+public class BacktrackingSolver implements SudokuSolver {
+
+    private long nodes;
+    private byte[] firstSolution;
+
+    @Override
+    public SolverResult solve(int size, byte[] cells) {
+        long start = System.nanoTime();
+        search(size, cells, 1);
+        return new SolverResult(firstSolution, nodes, System.nanoTime() - start);
+    }
+
+    @Override
+    public int countSolutions(int size, byte[] cells, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Solution limit must be positive.");
+        int solutions = search(size, cells, limit);
+        firstSolution = null;
+        return solutions;
+    }
+
+    /**
+     * Searches until 'limit' solutions are found or the search space is exhausted, keeping the first solution in
+     * 'firstSolution'.
+     *
+     * @return  Number of solutions found.
+     */
+    private int search(int size, byte[] cells, int limit) {
+        nodes = 0;
+        firstSolution = null;
+        int numCells = size*size;
+        int boxSize = (int)Math.sqrt(size);
+        int[] rows = new int[size];
+        int[] columns = new int[size];
+        int[] boxes = new int[size];
+        if (!Candidates.occupancy(size, cells, rows, columns, boxes)) return 0;
+
+        int full = Candidates.full(size);
+        int[] empty = new int[numCells]; // Empty cell indices in row-major order
+        int[] candidates = new int[numCells];
+        int emptyCount = 0;
+        for (int i = 0; i < numCells; i++) {
+            if (cells[i] != 0) continue;
+            int row = i/size, col = i%size;
+            candidates[emptyCount] = full & ~(rows[row] | columns[col] | boxes[(row/boxSize)*boxSize + col/boxSize]);
+            empty[emptyCount++] = i;
+        }
+
+        byte[] solution = cells.clone();
+        int solutions = 0;
+        int k = 0;
+        int startNumber = 0;
+        while (true) {
+            if (k == emptyCount) { // Every cell is filled
+                if (solutions++ == 0) firstSolution = solution.clone();
+                if (solutions >= limit) return solutions;
+            }
+            else {
+                int index = empty[k];
+                int row = index/size, col = index%size, box = (row/boxSize)*boxSize + col/boxSize;
+                int used = rows[row] | columns[col] | boxes[box];
+                int insert = Candidates.next(candidates[k] & ~used, startNumber);
+                if (insert != 0) { // Place number and advance to the next empty cell
+                    nodes++;
+                    int bit = Candidates.bit(insert);
+                    rows[row] |= bit;
+                    columns[col] |= bit;
+                    boxes[box] |= bit;
+                    solution[index] = (byte)insert;
+                    startNumber = 0;
+                    k++;
+                    continue;
+                }
+            }
+            if (k == 0) return solutions;
+            k--; // Backtrack to the previous cell and resume after the number it held
+            int index = empty[k];
+            int row = index/size, col = index%size;
+            startNumber = solution[index];
+            int clear = ~Candidates.bit(startNumber);
+            rows[row] &= clear;
+            columns[col] &= clear;
+            boxes[(row/boxSize)*boxSize + col/boxSize] &= clear;
+            solution[index] = 0;
+        }
+    }
+}
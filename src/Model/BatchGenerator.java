@@ -0,0 +1,342 @@
+/************************************************************************
+ * BatchGenerator.java                                                  *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the multi-threaded board list generator. Worker   *
+ * threads create unique-solution puzzles with their own solver engine  *
+ * and hand them, already formatted, to a single writer which drops     *
+ * puzzles equivalent to one already written and appends the rest to    *
+ * the output file until the requested number of boards has been        *
+ * written. Output depends only on the seed, not on the thread count.   *
+ * Long runs can checkpoint their progress and resume after a crash.    *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel producer of board list files. Puzzles are numbered jobs: job i is generated from a random stream seeded
+ * by the generator seed and i, and the writer writes jobs strictly in index order, holding back those finished
+ * early. The same seed therefore gives a byte-identical file whatever the thread count. The calling thread is the
+ * only writer, so the output file needs no locking, and a window of job permits keeps workers from running ahead of
+ * the writer. Because of the per-job streams, the seed and the next job index to write are the run's whole random
+ * state; a checkpoint saves them with the counters and fingerprints so a resumed run writes exactly the boards the
+ * uninterrupted run would have.
+ */
+public class BatchGenerator {
+
+    /** Number of jobs workers may run ahead of the next job to be written. */
+    private static final int WINDOW = 256;
+
+    /** Default time between checkpoints, in milliseconds. */
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 60_000;
+
+    private final int boardSize;
+    private final int threads;
+    private final int clues;
+    private boolean deduplicate = true;
+    private long seed = new java.util.Random().nextLong();
+    private int maxClues = Integer.MAX_VALUE;
+    private long checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    private int shard = 0;
+    private int shards = 1;
+
+    /**
+     * Creates a generator for boards of the given size with the default clue count for that size.
+     *
+     * @param boardSize Side length of the generated boards (a perfect square).
+     * @param threads   Number of worker threads creating boards.
+     */
+    public BatchGenerator(int boardSize, int threads) {
+        this(boardSize, threads, SudokuGenerator.defaultClueCount(boardSize));
+    }
+
+    /**
+     * Creates a generator for boards of the given size.
+     *
+     * @param boardSize Side length of the generated boards (a perfect square).
+     * @param threads   Number of worker threads creating boards.
+     * @param clues     Target number of fixed numbers per board; boards whose clues cannot all be removed down to
+     *                  the target are written minimal.
+     */
+    public BatchGenerator(int boardSize, int threads, int clues) {
+        int subsquareSize = (int)Math.sqrt(boardSize);
+        if (boardSize < 1 || subsquareSize*subsquareSize != boardSize)
+            throw new IllegalArgumentException("Board size must be a positive perfect square.");
+        if (threads < 1) throw new IllegalArgumentException("Thread count must be positive.");
+        this.boardSize = boardSize;
+        this.threads = threads;
+        this.clues = clues;
+    }
+
+    /**
+     * Sets whether equivalent boards are dropped (the default). When they are, every written board belongs to a
+     * different equivalence class, including the boards already in the output file. Otherwise each puzzle is written
+     * along with its combinations. Small boards have few equivalence classes (4x4 puzzles with a given clue count
+     * run out after a few hundred), so a count above that is never reached when deduplicating. Boards are compared by
+     * canonical form fingerprint (see Canonicalizer): above 9x9 only relabeled boards count as equivalent, and a
+     * fingerprint collision drops a distinct puzzle.
+     *
+     * @param deduplicate   True to write one board per equivalence class.
+     */
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    /**
+     * Sets the largest number of clues a written puzzle may have; puzzles with more are dropped. Combined with a
+     * target clue count of 0, which reduces every puzzle to a minimal one, this produces sparse puzzles. Every worker
+     * reduces its own puzzles sequentially: the workers already keep every core busy, so checking the removals of one
+     * puzzle concurrently (MinimalPuzzleReducer) would only add overhead here.
+     *
+     * @param maxClues  Largest clue count written.
+     */
+    public void setMaxClues(int maxClues) {
+        this.maxClues = maxClues;
+    }
+
+    /**
+     * Sets the seed of the random streams of every job. A random seed is used unless one is set.
+     *
+     * @param seed  Generator seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the seed of the random streams of every job, so a run can be reproduced.
+     *
+     * @return  Generator seed.
+     */
+    public long getSeed() { return this.seed; }
+
+    /**
+     * Makes this generator one of several independent processes sharing a seed. Job j of shard k draws from the
+     * stream of global job k + j*shards, so shards never generate from the same stream and together cover the jobs
+     * of a single unsharded run. Shards deduplicate only their own boards; ShardedGenerator merges them.
+     *
+     * @param shard     Index of this shard, from 0 to shards-1.
+     * @param shards    Number of shards.
+     */
+    public void setShard(int shard, int shards) {
+        if (shards < 1 || shard < 0 || shard >= shards) throw new IllegalArgumentException("Invalid shard.");
+        this.shard = shard;
+        this.shards = shards;
+    }
+
+    /**
+     * Sets the time between checkpoints of runs given a checkpoint file. A checkpoint flushes and syncs the output
+     * file, so very short intervals slow generation down.
+     *
+     * @param millis    Minimum time between checkpoints, in milliseconds.
+     */
+    public void setCheckpointInterval(long millis) {
+        if (millis < 0) throw new IllegalArgumentException("Checkpoint interval cannot be negative.");
+        this.checkpointInterval = millis;
+    }
+
+    /**
+     * Generates boards until 'count' of them have been appended to the output file. Boards are written in the
+     * format read by SudokuBoard.readBoardListFile.
+     *
+     * @param output    File the boards are appended to; created if it does not exist.
+     * @param count     Number of boards to write.
+     * @return  Number of boards written, which is 'count' unless the calling thread was interrupted.
+     * @throws IOException  If the output file cannot be written.
+     */
+    public int generate(File output, int count) throws IOException {
+        return generate(output, count, null);
+    }
+
+    /**
+     * Generates boards until 'count' of them have been appended to the output file, checkpointing progress
+     * periodically, when interrupted and when done. If the checkpoint file exists the run resumes from it: the
+     * output file is cut back to the length it had at the checkpoint, dropping boards written after it, and the run
+     * continues with the checkpoint's seed, so the file ends up byte-identical to that of an uninterrupted run.
+     * 'count' is the run's total, including the boards written before the checkpoint. An exception thrown by a
+     * worker while creating a board stops the run and is thrown by this method, leaving the last checkpoint in place.
+     *
+     * @param output        File the boards are appended to; created if it does not exist.
+     * @param count         Number of boards the whole run writes.
+     * @param checkpoint    File progress is saved to and resumed from, or null to keep no checkpoint.
+     * @return  Number of boards written by the whole run, which is 'count' unless the calling thread was interrupted.
+     * @throws IOException  If a file cannot be read or written, or the output file is shorter than the checkpoint
+     *                      says.
+     */
+    public int generate(File output, int count, File checkpoint) throws IOException {
+        if (count < 0) throw new IllegalArgumentException("Board count cannot be negative.");
+        GenerationCheckpoint saved = (checkpoint == null) ? null : GenerationCheckpoint.read(checkpoint);
+        Set<Long> fingerprints; // Only touched by the writer
+        int written;
+        long nextToWrite;
+        if (saved != null) {
+            if (saved.boardSize != boardSize || saved.clues != clues || saved.maxClues != maxClues
+                    || saved.deduplicate != deduplicate || saved.shard != shard || saved.shards != shards)
+                throw new IllegalArgumentException("Checkpoint was written by a run with different settings.");
+            if (output.length() < saved.outputLength)
+                throw new IOException(output + " is shorter than its checkpoint.");
+            seed = saved.seed;
+            fingerprints = saved.fingerprints;
+            written = saved.written;
+            nextToWrite = saved.nextJob;
+        }
+        else {
+            fingerprints = new HashSet<>();
+            if (deduplicate && output.exists()) { // Boards already in the file count as generated
+                Canonicalizer canonicalizer = new Canonicalizer(boardSize);
+                new BoardListParser(boardSize).parse(output,
+                        cells -> fingerprints.add(canonicalizer.fingerprint(cells)));
+            }
+            written = 0;
+            nextToWrite = 0;
+        }
+        if (written >= count) return written;
+        if (saved != null) { // Boards after the checkpoint are written again
+            try (FileChannel channel = FileChannel.open(output.toPath(), StandardOpenOption.WRITE)) {
+                channel.truncate(saved.outputLength);
+            }
+        }
+        BlockingQueue<Job> results = new LinkedBlockingQueue<>();
+        Semaphore window = new Semaphore(WINDOW);
+        AtomicLong nextJob = new AtomicLong(nextToWrite);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) workers.execute(() -> produce(results, window, nextJob));
+        HashMap<Long, Job> finished = new HashMap<>(); // Jobs done ahead of the next one to write
+        long lastCheckpoint = System.currentTimeMillis();
+        try (TextBoardSink sink = new TextBoardSink(output, boardSize, true)) {
+            try {
+                while (written < count) {
+                    Job job = results.take();
+                    if (job.failure != null) throw rethrow(job.failure);
+                    finished.put(job.index, job);
+                    while (written < count && (job = finished.remove(nextToWrite)) != null) {
+                        nextToWrite++;
+                        window.release();
+                        if (job.boards.length == 0 || (deduplicate && !fingerprints.add(job.fingerprint))) continue;
+                        for (int i = 0; i < job.boards.length && written < count; i++) {
+                            sink.add(job.boards[i], null);
+                            written++;
+                        }
+                    }
+                    if (checkpoint != null && System.currentTimeMillis() - lastCheckpoint >= checkpointInterval) {
+                        saveCheckpoint(checkpoint, sink, output, nextToWrite, written, fingerprints);
+                        lastCheckpoint = System.currentTimeMillis();
+                    }
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                workers.shutdownNow();
+            }
+            if (checkpoint != null) saveCheckpoint(checkpoint, sink, output, nextToWrite, written, fingerprints);
+        }
+        return written;
+    }
+
+    /**
+     * Flushes and syncs the output file, then saves the run's progress. The file is synced first so the checkpoint
+     * never claims boards that are not on disk.
+     */
+    private void saveCheckpoint(File checkpoint, BoardSink sink, File output, long nextToWrite, int written,
+                                Set<Long> fingerprints) throws IOException {
+        sink.sync();
+        new GenerationCheckpoint(boardSize, clues, maxClues, deduplicate, shard, shards, seed, nextToWrite,
+                written, output.length(), fingerprints).write(checkpoint);
+    }
+
+    /**
+     * Gets the exception a worker failed with, to be thrown by the writer. Workers only fail with unchecked
+     * exceptions and errors, which are thrown as they are.
+     */
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof Error) throw (Error)failure;
+        if (failure instanceof RuntimeException) return (RuntimeException)failure;
+        return new IllegalStateException("Board generation failed.", failure);
+    }
+
+    /**
+     * Puzzle generated for one job index, with the boards to write, or the failure of a worker.
+     */
+    private static final class Job {
+        final long index;
+        final long fingerprint; // Canonical form fingerprint, used when deduplicating
+        final byte[][] boards;
+        final Throwable failure; // Exception that stopped the worker, null for a generated job
+
+        Job(long index, long fingerprint, byte[][] boards) {
+            this.index = index;
+            this.fingerprint = fingerprint;
+            this.boards = boards;
+            this.failure = null;
+        }
+
+        Job(Throwable failure) {
+            this.index = -1;
+            this.fingerprint = 0;
+            this.boards = null;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Worker loop: claims job indices and creates each job's unique-solution puzzle from a random solved grid until
+     * the generator shuts the workers down. Every job draws from its own random stream, seeded from the generator's
+     * seed and the job index, so a job's puzzle does not depend on which worker ran it. When deduplicating a job
+     * holds its puzzle and fingerprint; otherwise it holds the puzzle's combinations, which are unique as well. A
+     * worker that fails hands its exception to the writer as a failure job, so the writer never waits for a job that
+     * will not come; the writer then throws it and shuts the other workers down.
+     */
+    private void produce(BlockingQueue<Job> results, Semaphore window, AtomicLong nextJob) {
+        try {
+            SudokuSolver solver = SolverType.getDefault().create(); // Solvers are not thread safe, one per worker
+            Canonicalizer canonicalizer = new Canonicalizer(boardSize);
+            ArrayList<BoardTransform> transforms = SudokuGenerator.combinationTransforms(boardSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                window.acquire(); // Keeps workers at most WINDOW jobs ahead of the writer
+                long index = nextJob.getAndIncrement();
+                java.util.Random rand = new java.util.Random(SudokuGenerator.jobSeed(seed, shard + index*shards));
+                byte[] puzzle = SudokuGenerator.generateUniquePuzzle(boardSize, clues, rand, solver);
+                Job job;
+                if (countClues(puzzle) > maxClues) job = new Job(index, 0, new byte[0][]);
+                else if (deduplicate) job = new Job(index, canonicalizer.fingerprint(puzzle), new byte[][] {puzzle});
+                else {
+                    byte[][] boards = new byte[transforms.size()][boardSize*boardSize];
+                    for (int i = 0; i < boards.length; i++) transforms.get(i).apply(puzzle, boards[i]);
+                    job = new Job(index, 0, boards);
+                }
+                results.put(job);
+            }
+        }
+        catch (InterruptedException ex) {
+            // Generation finished while waiting for the writer
+        }
+        catch (Throwable ex) {
+            results.offer(new Job(ex)); // Unbounded queue, never refuses
+        }
+    }
+
+    private static int countClues(byte[] cells) {
+        int clues = 0;
+        for (byte cell: cells) {
+            if (cell != 0) clues++;
+        }
+        return clues;
+    }
+}
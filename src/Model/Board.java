@@ -19,8 +19,11 @@ public class Board {
 	private final int width;
 	private final int height;
 
-	/**	Stores data points of board	*/
-	private int[][] cells;
+	/**	Stores data points of board in row-major order (i.e. cells[row*width+column])	*/
+	private byte[] cells;
+
+	/**	Bitset flagging the unalterable (given) cells, parallel to 'cells'	*/
+	private long[] fixedCells;
 
 	/**
 	 * @author Marco Soto
@@ -30,7 +33,8 @@ public class Board {
 	 * @param height	Desired height of board.
 	 */
 	public Board(int width, int height) {
-		this.cells = new int[width][height];
+		this.cells = new byte[width*height];
+		this.fixedCells = new long[(width*height+63) >>> 6];
 		this.width = width;
 		this.height = height;
 	}
@@ -42,8 +46,7 @@ public class Board {
 	 * @param size	Desired side lengths of board (all sides).
 	 */
 	public Board(int size) {
-		this.cells = new int[size][size];
-		this.height = this.width = size;
+		this(size, size);
 	}
 
 	/**
@@ -52,22 +55,103 @@ public class Board {
 	 *
 	 * @param row	row index in cell table
 	 * @param col	column index in cell table
-	 * @return	Value of cell in given row and column (i.e. cells[row][column])
+	 * @return	Value of cell in given row and column
 	 */
 	public int getCell(int row, int col) {
-		return this.cells[row][col];
+		return this.cells[row*width+col];
 	}
 
 	/**
 	 * @author Marco Soto
-	 * //TODO: Documentation
+	 * Setter method for requested cell location. Values are stored as bytes and must lie between 0 and 127.
 	 *
-	 * @param number
-	 * @param row
-	 * @param col
+	 * @param number	Value to be stored.
+	 * @param row		row index in cell table
+	 * @param col		column index in cell table
 	 */
 	public void setCell(int number, int row, int col) {
-		this.cells[row][col] = number;
+		this.cells[row*width+col] = (byte)number;
+	}
+
+	/**
+	 * Determines whether the requested cell location is flagged as fixed (unalterable).
+	 *
+	 * @param row	row index in cell table
+	 * @param col	column index in cell table
+	 * @return	True if the cell is fixed, false otherwise.
+	 */
+	public boolean isFixed(int row, int col) {
+		int index = row*width+col;
+		return (this.fixedCells[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Flags or unflags the requested cell location as fixed (unalterable).
+	 *
+	 * @param fixed	Whether the cell should be fixed.
+	 * @param row	row index in cell table
+	 * @param col	column index in cell table
+	 */
+	public void setFixed(boolean fixed, int row, int col) {
+		int index = row*width+col;
+		if (fixed) this.fixedCells[index >>> 6] |= 1L << index;
+		else this.fixedCells[index >>> 6] &= ~(1L << index);
+	}
+
+	/**
+	 * Copies every cell into the given array in row-major order without allocating.
+	 *
+	 * @param dest	Array of at least width*height elements receiving the cells.
+	 */
+	public void copyCells(byte[] dest) {
+		System.arraycopy(this.cells, 0, dest, 0, this.cells.length);
+	}
+
+	/**
+	 * Overwrites every cell with the given numbers in one pass and flags exactly the non-zero cells as fixed,
+	 * without any per-cell checks. Used to load puzzles known to be well formed.
+	 *
+	 * @param source	Numbers in row-major order, 0 for an empty cell.
+	 */
+	protected void loadCells(byte[] source) {
+		System.arraycopy(source, 0, this.cells, 0, this.cells.length);
+		java.util.Arrays.fill(this.fixedCells, 0L);
+		for (int index = 0; index < this.cells.length; index++) {
+			if (source[index] != 0) this.fixedCells[index >>> 6] |= 1L << index;
+		}
+	}
+
+	/**
+	 * Overwrites every cell and the fixed flags at once, without any per-cell checks. Used to restore saved games,
+	 * where entered numbers are not fixed.
+	 *
+	 * @param source	Numbers in row-major order, 0 for an empty cell.
+	 * @param fixed		Fixed cell bitset as copied by copyFixed.
+	 */
+	protected void loadCells(byte[] source, long[] fixed) {
+		System.arraycopy(source, 0, this.cells, 0, this.cells.length);
+		System.arraycopy(fixed, 0, this.fixedCells, 0, this.fixedCells.length);
+	}
+
+	/**
+	 * Copies the fixed cell bitset into the given array without allocating. Cell index i is bit i%64 of word i/64.
+	 *
+	 * @param dest	Array of at least (width*height+63)/64 elements receiving the bitset.
+	 */
+	protected void copyFixed(long[] dest) {
+		System.arraycopy(this.fixedCells, 0, dest, 0, this.fixedCells.length);
+	}
+
+	/**
+	 * Overwrites this board's cells and fixed flags with those of another board of the same dimensions.
+	 *
+	 * @param source	Board being copied.
+	 */
+	protected void copyFrom(Board source) {
+		if (source.width != this.width || source.height != this.height)
+			throw new IllegalArgumentException("Board dimensions do not match");
+		System.arraycopy(source.cells, 0, this.cells, 0, this.cells.length);
+		System.arraycopy(source.fixedCells, 0, this.fixedCells, 0, this.fixedCells.length);
 	}
 
 	/**	Gets height dimension of board	*/
@@ -0,0 +1,62 @@
+/************************************************************************
+ * BoardListDeduplicator.java                                           *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a standalone program that removes equivalent      *
+ * boards from a board list file. Boards are compared by the            *
+ * fingerprint of their canonical form, so rotations, flips, swaps and  *
+ * relabelings of a board already in the list are dropped. Above 9x9    *
+ * only relabelings are recognized, as explained in Canonicalizer.      *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+
+public class BoardListDeduplicator {
+
+    /**
+     * Runs the deduplicator.
+     * Usage: BoardListDeduplicator boardSize inputFile outputFile
+     * @param args  Board size, board list file to read and file the distinct boards are written to.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: BoardListDeduplicator boardSize inputFile outputFile");
+            return;
+        }
+        int boardSize = Integer.parseInt(args[0]);
+        try {
+            int[] counts = deduplicate(boardSize, new File(args[1]), new File(args[2]));
+            System.out.printf("Kept %d of %d boards%n", counts[1], counts[0]);
+        }
+        catch (IOException ex) {
+            System.out.println(ex);
+        }
+    }
+
+    /**
+     * Writes the first board of every equivalence class found in a board list file to another file. Classes are told
+     * apart by their canonical form's fingerprint only, so a board whose fingerprint collides with an earlier one is
+     * dropped, and boards larger than 9x9 are only merged with their relabelings (see Canonicalizer).
+     * @param boardSize Side length of the boards.
+     * @param input     Board list file to read.
+     * @param output    File the distinct boards are written to; replaced once complete if it exists.
+     * @return  Number of boards read and number of boards written.
+     * @throws IOException  If the input cannot be read or is malformed, or the output file cannot be written; the
+     *                      output file is then left untouched.
+     */
+    public static int[] deduplicate(int boardSize, File input, File output) throws IOException {
+        Canonicalizer canonicalizer = new Canonicalizer(boardSize);
+        HashSet<Long> fingerprints = new HashSet<>();
+        try (TextBoardSink sink = new TextBoardSink(output, boardSize, false)) {
+            int read = new BoardListParser(boardSize).parse(input, cells -> {
+                if (fingerprints.add(canonicalizer.fingerprint(cells))) sink.add(cells, null);
+            });
+            sink.commit();
+            return new int[] {read, (int)sink.getCount()};
+        }
+    }
+}
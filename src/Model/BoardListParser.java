@@ -0,0 +1,255 @@
+/************************************************************************
+ * BoardListParser.java                                                 *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the streaming parser of board list files. The     *
+ * file is read in large blocks through a file channel and its bytes    *
+ * are turned into cells in a single loop, without Scanner, strings or  *
+ * per-number board inserts, so large libraries load at disk speed.     *
+ ************************************************************************/
+
+package Model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Board list parser accepting two formats, which may be mixed in one file:
+ * <ul>
+ *     <li>one board per 'size' lines of whitespace separated numbers, 0 for an empty cell, as written by
+ *     SudokuBoard.writeBoardToFile; missing numbers at the end of a line are empty cells and extra ones are
+ *     ignored</li>
+ *     <li>one board per line as 'size' squared characters, '0' or '.' for an empty cell, the common format of 9x9
+ *     puzzle collections; anything after the first whitespace or comma of such a line, like a rating, is ignored</li>
+ * </ul>
+ * Blank lines and lines starting with '#' are skipped, wherever they are. Each parsed board is optionally checked for
+ * repeated numbers, which can be turned off for libraries vetted when they were generated.
+ */
+public class BoardListParser {
+
+    private static final int BLOCK_BYTES = 1 << 20;
+
+    private final int boardSize;
+    private boolean validate = true;
+
+    /**
+     * Receiver of parsed boards. May throw IOException, so boards can be streamed straight into a BoardSink; the
+     * exception stops the parse and is thrown by parse.
+     */
+    public interface BoardConsumer {
+        void accept(byte[] cells) throws IOException;
+    }
+
+    /**
+     * Creates a parser for boards of the given size.
+     *
+     * @param boardSize Side length of the boards (at most 31).
+     */
+    public BoardListParser(int boardSize) {
+        if (boardSize < 1 || boardSize > 31) throw new IllegalArgumentException("Unsupported board size.");
+        this.boardSize = boardSize;
+    }
+
+    /**
+     * Sets whether every parsed board is checked for numbers repeated in a row, column or subsquare (the default).
+     *
+     * @param validate  True to reject boards with conflicting numbers.
+     */
+    public void setValidate(boolean validate) {
+        this.validate = validate;
+    }
+
+    /**
+     * Parses a board list file, handing every board to a consumer in file order.
+     *
+     * @param boardFile File to be read.
+     * @param consumer  Receives the cells of each board indexed by row*size+column, 0 for empty. The array is reused
+     *                  for the next board, so consumers copy what they keep.
+     * @return  Number of boards parsed.
+     * @throws IOException  If the file cannot be read, is malformed, when validating, holds a conflicting board, or
+     *                      the consumer throws it.
+     */
+    public int parse(File boardFile, BoardConsumer consumer) throws IOException {
+        try (Cursor cursor = open(boardFile)) {
+            while (cursor.next()) consumer.accept(cursor.getCells());
+            return cursor.getCount();
+        }
+    }
+
+    /**
+     * Opens a board list file to be read one board at a time, for callers that read several files side by side.
+     *
+     * @param boardFile File to be read.
+     * @return  Cursor before the first board; must be closed.
+     * @throws IOException  If the file cannot be opened.
+     */
+    public Cursor open(File boardFile) throws IOException {
+        return new Cursor(boardFile, FileChannel.open(boardFile.toPath(), StandardOpenOption.READ));
+    }
+
+    /**
+     * Position in a board list file being parsed: the block buffer, the board being filled and the position in the
+     * file for error messages.
+     */
+    public final class Cursor implements Closeable {
+        private final File file;
+        private final FileChannel channel;
+        private final byte[] cells = new byte[boardSize*boardSize];
+        private final int[] rows = new int[boardSize], columns = new int[boardSize], boxes = new int[boardSize];
+        private final byte[] boxOf = new byte[boardSize*boardSize]; // Subsquare of every cell, validating never divides
+        private byte[] block = new byte[BLOCK_BYTES];
+        private int filled = 0; // Bytes of 'block' holding input
+        private int start = 0; // Start of the first unparsed line in 'block'
+        private boolean eof = false;
+        private boolean ready = false; // Set when a parsed line completes a board
+        private int row = 0; // Rows of the current multi-line board filled so far
+        private int boards = 0;
+        private long line = 0;
+
+        private Cursor(File file, FileChannel channel) {
+            this.file = file;
+            this.channel = channel;
+            int boxSize = (int)Math.sqrt(boardSize);
+            for (int cell = 0; cell < boxOf.length; cell++) {
+                int i = cell / boardSize, j = cell % boardSize;
+                boxOf[cell] = (byte)((i/boxSize)*boxSize + j/boxSize);
+            }
+        }
+
+        /**
+         * Parses the next board.
+         *
+         * @return  True if a board was parsed into getCells, false at the end of the file.
+         * @throws IOException  If the file cannot be read, is malformed or, when validating, holds a conflicting
+         *                      board.
+         */
+        public boolean next() throws IOException {
+            ready = false;
+            int scan = start;
+            while (!ready) {
+                while (scan < filled && block[scan] != '\n') scan++;
+                if (scan < filled) {
+                    int lineStart = start;
+                    start = ++scan;
+                    parseLine(lineStart, scan - 1);
+                }
+                else if (eof) {
+                    if (start == filled) {
+                        if (row != 0) throw error("file ends in the middle of a board");
+                        return false;
+                    }
+                    int lineStart = start; // Last line without a line break
+                    start = filled;
+                    parseLine(lineStart, filled);
+                }
+                else {
+                    System.arraycopy(block, start, block, 0, filled - start);
+                    filled -= start;
+                    scan -= start;
+                    start = 0;
+                    if (filled == block.length) block = Arrays.copyOf(block, 2*block.length); // Line over a block long
+                    int read = channel.read(ByteBuffer.wrap(block, filled, block.length - filled));
+                    if (read < 0) eof = true;
+                    else filled += read;
+                }
+            }
+            return true;
+        }
+
+        /** Gets the cells of the board parsed by next, indexed by row*size+column; the array is reused. */
+        public byte[] getCells() { return this.cells; }
+
+        /** Gets the number of boards parsed so far. */
+        public int getCount() { return this.boards; }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void parseLine(int start, int end) throws IOException {
+            line++;
+            while (start < end && isBlank(block[start])) start++;
+            while (end > start && isBlank(block[end-1])) end--;
+            if (start == end || block[start] == '#') return;
+            int length = end - start;
+            boolean oneLine = boardSize <= 9 && length >= cells.length
+                    && !isBlank(block[start+1]) // Rows of single-digit numbers have a blank after the first one
+                    && (length == cells.length || isBlank(block[start + cells.length])
+                        || block[start + cells.length] == ',');
+            if (oneLine) parseOneLine(start);
+            else parseRow(start, end);
+        }
+
+        private void parseOneLine(int start) throws IOException {
+            if (row != 0) throw error("one-line board inside a multi-line board");
+            for (int cell = 0; cell < cells.length; cell++) {
+                int c = block[start + cell];
+                if (c == '.') c = '0';
+                if (c < '0' || c > '0' + boardSize) throw error("invalid cell '" + (char)block[start + cell] + "'");
+                cells[cell] = (byte)(c - '0');
+            }
+            emit();
+        }
+
+        private void parseRow(int start, int end) throws IOException {
+            int offset = row*boardSize;
+            int column = 0;
+            int i = start;
+            while (i < end && column < boardSize) {
+                int number = 0;
+                int digits = 0;
+                for (; i < end && block[i] >= '0' && block[i] <= '9'; i++, digits++)
+                    number = number*10 + block[i] - '0';
+                if (digits == 0 || digits > 2 || number > boardSize || (i < end && !isBlank(block[i])))
+                    throw error("invalid number");
+                cells[offset + column++] = (byte)number;
+                while (i < end && isBlank(block[i])) i++;
+            }
+            Arrays.fill(cells, offset + column, offset + boardSize, (byte)0);
+            if (++row == boardSize) {
+                row = 0;
+                emit();
+            }
+        }
+
+        private void emit() throws IOException {
+            if (validate && hasConflict()) throw error("board " + (boards + 1) + " has conflicting numbers");
+            boards++;
+            ready = true;
+        }
+
+        /** Checks whether a number repeats in a row, column or subsquare; numbers are known to be in range. */
+        private boolean hasConflict() {
+            Arrays.fill(rows, 0);
+            Arrays.fill(columns, 0);
+            Arrays.fill(boxes, 0);
+            for (int i = 0, cell = 0; i < boardSize; i++) {
+                for (int j = 0; j < boardSize; j++, cell++) {
+                    int number = cells[cell];
+                    if (number == 0) continue;
+                    int bit = 1 << (number - 1);
+                    int box = boxOf[cell];
+                    if (((rows[i] | columns[j] | boxes[box]) & bit) != 0) return true;
+                    rows[i] |= bit;
+                    columns[j] |= bit;
+                    boxes[box] |= bit;
+                }
+            }
+            return false;
+        }
+
+        private IOException error(String message) {
+            return new IOException(file + ", line " + line + ": " + message);
+        }
+    }
+
+    private static boolean isBlank(byte c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+}
@@ -0,0 +1,67 @@
+/************************************************************************
+ * BoardSink.java                                                       *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the interface of every puzzle output: a long      *
+ * lived destination that puzzles are added to one at a time, buffered  *
+ * and written in batches, then committed once complete.                *
+ ************************************************************************/
+
+package Model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of generated or converted puzzles. Puzzles are given as flat arrays of side length 'size' squared,
+ * indexed by row*size+column, where 0 marks an empty cell. Every failure is reported as an IOException from the call
+ * that hit it. Sinks are not thread safe.
+ */
+public interface BoardSink extends Closeable {
+
+    /**
+     * When a sink forces its data to disk. Syncing trades throughput for durability across power loss; output lost by
+     * a crash of the process alone is already prevented by flushing.
+     */
+    enum SyncPolicy {
+        /** Never sync; the operating system writes the data back on its own schedule. */
+        NEVER,
+        /** Sync once, when the sink is committed. */
+        ON_COMMIT,
+        /** Sync on every flush, including the batched ones. */
+        ON_FLUSH
+    }
+
+    /**
+     * Adds a puzzle.
+     *
+     * @param puzzle    Puzzle cells. Not kept.
+     * @param solution  Solved cells of the puzzle, or null; sinks that do not store solutions ignore it.
+     * @throws IOException  If the sink cannot write.
+     */
+    void add(byte[] puzzle, byte[] solution) throws IOException;
+
+    /**
+     * Writes the buffered puzzles to the file, syncing it if the sync policy says so.
+     *
+     * @throws IOException  If the sink cannot write.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Writes the buffered puzzles and forces them to disk whatever the sync policy.
+     *
+     * @throws IOException  If the sink cannot write.
+     */
+    void sync() throws IOException;
+
+    /**
+     * Completes the output: writes everything left and makes the file visible under its final name.
+     *
+     * @throws IOException  If the sink cannot write; the output is then left incomplete and not visible.
+     */
+    void commit() throws IOException;
+
+    /** Gets the number of puzzles added. */
+    long getCount();
+}
@@ -0,0 +1,283 @@
+/************************************************************************
+ * BoardTransform.java                                                  *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the validity preserving transformations of sudoku *
+ * boards: number relabeling, row permutations within bands, column    *
+ * permutations within stacks, band and stack permutations and          *
+ * transposition, along with the rotations and flips built from them.   *
+ * Transforms compose, and are applied to flat cell arrays without      *
+ * allocating, so one board can be expanded into many equivalent ones.  *
+ ************************************************************************/
+
+package Model;
+
+import java.util.Random;
+
+/**
+ * Immutable element of the sudoku symmetry group for one board size. Every transform is stored as a cell
+ * permutation, giving the source cell of each destination cell, followed by a number relabeling; cells are indexed
+ * row*size+column as everywhere else in the model. A transform maps valid boards to valid boards, solved grids to
+ * solved grids and unique puzzles to unique puzzles.
+ */
+public final class BoardTransform {
+
+    private final int size;
+    private final int[] source;  // Destination cell i takes the number of source cell source[i]
+    private final byte[] numbers; // Number n becomes numbers[n]; numbers[0] is 0 so empty cells stay empty
+
+    private BoardTransform(int size, int[] source, byte[] numbers) {
+        this.size = size;
+        this.source = source;
+        this.numbers = numbers;
+    }
+
+    /**
+     * Gets the transform that leaves every board unchanged.
+     *
+     * @param size  Side length of the board (a perfect square).
+     * @return  Identity transform.
+     */
+    public static BoardTransform identity(int size) {
+        int subsquareSize = (int)Math.sqrt(size);
+        if (size < 1 || subsquareSize*subsquareSize != size)
+            throw new IllegalArgumentException("Board size must be a positive perfect square.");
+        int[] source = new int[size*size];
+        for (int i = 0; i < source.length; i++) source[i] = i;
+        byte[] numbers = new byte[size+1];
+        for (int n = 0; n <= size; n++) numbers[n] = (byte)n;
+        return new BoardTransform(size, source, numbers);
+    }
+
+    /**
+     * Gets the transform replacing every number n by mapping[n-1].
+     *
+     * @param size      Side length of the board.
+     * @param mapping   Permutation of the numbers 1 to size.
+     * @return  Relabeling transform.
+     */
+    public static BoardTransform relabel(int size, int[] mapping) {
+        checkPermutation(mapping, size, 1);
+        BoardTransform identity = identity(size);
+        byte[] numbers = identity.numbers;
+        for (int n = 1; n <= size; n++) numbers[n] = (byte)mapping[n-1];
+        return identity;
+    }
+
+    /**
+     * Gets the transform reordering the rows of one band (a row of subsquares): row 'order[k]' of the band moves to
+     * position k.
+     *
+     * @param size  Side length of the board.
+     * @param band  Band index, from 0.
+     * @param order Permutation of 0 to sqrt(size)-1.
+     * @return  Row permutation transform.
+     */
+    public static BoardTransform permuteRows(int size, int band, int[] order) {
+        int subsquareSize = (int)Math.sqrt(size);
+        if (band < 0 || band >= subsquareSize) throw new IllegalArgumentException("Invalid band index: " + band);
+        checkPermutation(order, subsquareSize, 0);
+        int[] rows = identityOrder(size);
+        for (int k = 0; k < subsquareSize; k++) rows[band*subsquareSize + k] = band*subsquareSize + order[k];
+        return lines(size, rows, identityOrder(size), false);
+    }
+
+    /**
+     * Gets the transform reordering the columns of one stack (a column of subsquares): column 'order[k]' of the
+     * stack moves to position k.
+     *
+     * @param size  Side length of the board.
+     * @param stack Stack index, from 0.
+     * @param order Permutation of 0 to sqrt(size)-1.
+     * @return  Column permutation transform.
+     */
+    public static BoardTransform permuteColumns(int size, int stack, int[] order) {
+        return transpose(size).then(permuteRows(size, stack, order)).then(transpose(size));
+    }
+
+    /**
+     * Gets the transform reordering whole bands: band 'order[k]' moves to position k.
+     *
+     * @param size  Side length of the board.
+     * @param order Permutation of 0 to sqrt(size)-1.
+     * @return  Band permutation transform.
+     */
+    public static BoardTransform permuteBands(int size, int[] order) {
+        int subsquareSize = (int)Math.sqrt(size);
+        checkPermutation(order, subsquareSize, 0);
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++)
+            rows[row] = order[row/subsquareSize]*subsquareSize + row%subsquareSize;
+        return lines(size, rows, identityOrder(size), false);
+    }
+
+    /**
+     * Gets the transform reordering whole stacks: stack 'order[k]' moves to position k.
+     *
+     * @param size  Side length of the board.
+     * @param order Permutation of 0 to sqrt(size)-1.
+     * @return  Stack permutation transform.
+     */
+    public static BoardTransform permuteStacks(int size, int[] order) {
+        return transpose(size).then(permuteBands(size, order)).then(transpose(size));
+    }
+
+    /**
+     * Gets the transform swapping rows and columns.
+     *
+     * @param size  Side length of the board.
+     * @return  Transposition transform.
+     */
+    public static BoardTransform transpose(int size) {
+        identity(size); // Validates the size
+        return lines(size, identityOrder(size), identityOrder(size), true);
+    }
+
+    /**
+     * Gets the transform mirroring the board top to bottom (reversed bands, each with reversed rows).
+     *
+     * @param size  Side length of the board.
+     * @return  Horizontal flip transform.
+     */
+    public static BoardTransform flipHorizontally(int size) {
+        identity(size); // Validates the size
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) rows[row] = size-1-row;
+        return lines(size, rows, identityOrder(size), false);
+    }
+
+    /**
+     * Gets the transform mirroring the board left to right (reversed stacks, each with reversed columns).
+     *
+     * @param size  Side length of the board.
+     * @return  Vertical flip transform.
+     */
+    public static BoardTransform flipVertically(int size) {
+        return transpose(size).then(flipHorizontally(size)).then(transpose(size));
+    }
+
+    /**
+     * Gets the transform rotating the board a quarter turn clockwise.
+     *
+     * @param size  Side length of the board.
+     * @return  Clockwise rotation transform.
+     */
+    public static BoardTransform rotateRight(int size) {
+        return flipHorizontally(size).then(transpose(size));
+    }
+
+    /**
+     * Gets the transform rotating the board a quarter turn counterclockwise.
+     *
+     * @param size  Side length of the board.
+     * @return  Counterclockwise rotation transform.
+     */
+    public static BoardTransform rotateLeft(int size) {
+        return transpose(size).then(flipHorizontally(size));
+    }
+
+    /**
+     * Draws a uniformly random element of the symmetry group: random relabeling, random row order within every
+     * band, random column order within every stack, random band and stack orders and a random transposition.
+     *
+     * @param size  Side length of the board.
+     * @param rand  Source of randomness.
+     * @return  Random transform.
+     */
+    public static BoardTransform random(int size, Random rand) {
+        int subsquareSize = (int)Math.sqrt(size);
+        identity(size); // Validates the size
+        int[] bands = shuffled(subsquareSize, rand);
+        int[] stacks = shuffled(subsquareSize, rand);
+        int[] rows = new int[size];
+        int[] columns = new int[size];
+        for (int k = 0; k < subsquareSize; k++) {
+            int[] rowOrder = shuffled(subsquareSize, rand);
+            int[] columnOrder = shuffled(subsquareSize, rand);
+            for (int i = 0; i < subsquareSize; i++) {
+                rows[k*subsquareSize + i] = bands[k]*subsquareSize + rowOrder[i];
+                columns[k*subsquareSize + i] = stacks[k]*subsquareSize + columnOrder[i];
+            }
+        }
+        BoardTransform transform = lines(size, rows, columns, rand.nextBoolean());
+        int[] mapping = shuffled(size, rand);
+        for (int n = 1; n <= size; n++) transform.numbers[n] = (byte)(mapping[n-1]+1);
+        return transform;
+    }
+
+    /**
+     * Composes this transform with another one.
+     *
+     * @param next  Transform applied after this one; must be for the same board size.
+     * @return  Transform equivalent to applying this transform and then 'next'.
+     */
+    public BoardTransform then(BoardTransform next) {
+        if (next.size != size) throw new IllegalArgumentException("Transforms are for different board sizes.");
+        int[] composedSource = new int[source.length];
+        for (int i = 0; i < source.length; i++) composedSource[i] = source[next.source[i]];
+        byte[] composedNumbers = new byte[size+1];
+        for (int n = 0; n <= size; n++) composedNumbers[n] = next.numbers[numbers[n]];
+        return new BoardTransform(size, composedSource, composedNumbers);
+    }
+
+    /**
+     * Applies the transform to a flat cell array without allocating.
+     *
+     * @param cells Cells indexed by row*size+column, 0 for empty.
+     * @param dest  Array of size*size elements receiving the transformed cells; must not be 'cells'.
+     */
+    public void apply(byte[] cells, byte[] dest) {
+        if (cells == dest) throw new IllegalArgumentException("Transforms cannot be applied in place.");
+        for (int i = 0; i < source.length; i++) dest[i] = numbers[cells[source[i]]];
+    }
+
+    /**
+     * Gets the side length of the boards this transform applies to.
+     *
+     * @return  Board size.
+     */
+    public int getSize() { return size; }
+
+    /**
+     * Builds the transform whose destination cell (row, column) takes source cell (rows[row], columns[column]), with
+     * the source row and column swapped if 'transposed'.
+     */
+    private static BoardTransform lines(int size, int[] rows, int[] columns, boolean transposed) {
+        BoardTransform transform = identity(size);
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                transform.source[row*size+col] = transposed
+                        ? columns[col]*size + rows[row]
+                        : rows[row]*size + columns[col];
+            }
+        }
+        return transform;
+    }
+
+    private static int[] identityOrder(int length) {
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) order[i] = i;
+        return order;
+    }
+
+    private static int[] shuffled(int length, Random rand) {
+        int[] order = identityOrder(length);
+        for (int i = length-1; i > 0; i--) { // Fisher-Yates shuffle
+            int j = rand.nextInt(i+1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        return order;
+    }
+
+    private static void checkPermutation(int[] values, int length, int first) {
+        if (values.length != length) throw new IllegalArgumentException("Permutation must have " + length + " values.");
+        boolean[] seen = new boolean[length];
+        for (int value: values) {
+            if (value < first || value >= first+length || seen[value-first])
+                throw new IllegalArgumentException("Values do not form a permutation.");
+            seen[value-first] = true;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/************************************************************************
+ * Candidates.java                                                      *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides static helpers for working with candidate         *
+ * bitmasks, the primitive representation of the set of numbers that   *
+ * may still be placed in a sudoku cell. Number n is stored in bit n-1, *
+ * so every supported board size (up to 25x25) fits in a single int.    *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Allocation-free helpers for candidate bitmasks. Iterate the numbers in a mask with:
+ * <pre>
+ *     for (int m = mask; m != 0; m &amp;= m - 1) {
+ *         int number = Candidates.lowest(m);
+ *         ...
+ *     }
+ * </pre>
+ */
+public final class Candidates {
+
+    private Candidates() { }
+
+    /**
+     * Gets the mask bit representing a single number.
+     *
+     * @param number    Number between 1 and the board size.
+     * @return  Mask with only the bit for the given number set.
+     */
+    public static int bit(int number) {
+        return 1 << (number - 1);
+    }
+
+    /**
+     * Gets the mask containing every number of a board of the given size.
+     *
+     * @param size  Side length of the board.
+     * @return  Mask with the lowest 'size' bits set.
+     */
+    public static int full(int size) {
+        return (1 << size) - 1;
+    }
+
+    /**
+     * Gets the smallest number contained in the mask.
+     *
+     * @param mask  Non-empty candidate mask.
+     * @return  Smallest number in the mask.
+     */
+    public static int lowest(int mask) {
+        return Integer.numberOfTrailingZeros(mask) + 1;
+    }
+
+    /**
+     * Gets the smallest number contained in the mask that is strictly greater than the given number.
+     *
+     * @param mask      Candidate mask.
+     * @param number    Number to search after, or 0 to search from the beginning.
+     * @return  Next number in the mask, or 0 if there is none.
+     */
+    public static int next(int mask, int number) {
+        int remaining = mask & (-1 << number);
+        return (remaining == 0) ? 0 : lowest(remaining);
+    }
+
+    /**
+     * Gets the amount of numbers contained in the mask.
+     *
+     * @param mask  Candidate mask.
+     * @return  Number of set bits.
+     */
+    public static int count(int mask) {
+        return Integer.bitCount(mask);
+    }
+
+    /**
+     * Determines whether the number belongs to the mask.
+     *
+     * @param mask      Candidate mask.
+     * @param number    Number between 1 and the board size.
+     * @return  True if the number's bit is set, false otherwise.
+     */
+    public static boolean contains(int mask, int number) {
+        return (mask & bit(number)) != 0;
+    }
+
+    /**
+     * Fills the row, column and subsquare occupancy masks of a flat puzzle and checks that no number repeats within
+     * any of them. Subsquares are numbered in row-major order.
+     *
+     * @param size      Side length of the board.
+     * @param cells     Puzzle cells indexed by row*size+column, 0 for empty.
+     * @param rows      Output array of length 'size' receiving the mask of each row.
+     * @param columns   Output array of length 'size' receiving the mask of each column.
+     * @param boxes     Output array of length 'size' receiving the mask of each subsquare.
+     * @return  True if the puzzle has no conflicting or out of range numbers, false otherwise.
+     */
+    static boolean occupancy(int size, byte[] cells, int[] rows, int[] columns, int[] boxes) {
+        int boxSize = (int)Math.sqrt(size);
+        java.util.Arrays.fill(rows, 0, size, 0);
+        java.util.Arrays.fill(columns, 0, size, 0);
+        java.util.Arrays.fill(boxes, 0, size, 0);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int number = cells[i*size+j];
+                if (number == 0) continue;
+                if (number < 0 || number > size) return false;
+                int bit = bit(number);
+                int box = (i/boxSize)*boxSize + j/boxSize;
+                if (((rows[i] | columns[j] | boxes[box]) & bit) != 0) return false;
+                rows[i] |= bit;
+                columns[j] |= bit;
+                boxes[box] |= bit;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,273 @@
+/************************************************************************
+ * Canonicalizer.java                                                   *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the canonical form of sudoku boards: the          *
+ * lexicographically smallest board among all boards reachable through *
+ * the symmetry group of BoardTransform (minlex form). Equivalent       *
+ * boards share one canonical form, so its 64 bit fingerprint is used   *
+ * to detect duplicate puzzles in board lists and in generator output.  *
+ ************************************************************************/
+
+package Model;
+
+import java.util.ArrayList;
+
+/**
+ * Minlex canonicalizer. Instead of trying every transform, the canonical board is built one row at a time: a
+ * partial candidate is a transposition choice, a column order and the source rows picked so far, with numbers
+ * relabeled in order of first appearance. At every row only the candidates producing the smallest row survive,
+ * which keeps the search to a handful of candidates after the first rows for all but highly symmetric boards.
+ * The column orders (2*6^4 for 9x9) are enumerated up front. Boards larger than 9x9 have too many column orders, so
+ * for them the canonical form only removes relabeling: two 16x16 or 25x25 boards share a canonical form only if one
+ * is a relabeling of the other, and rotated, transposed or band and stack permuted copies are not recognized.
+ *
+ * Fingerprints are 64 bit hashes, so two inequivalent boards may share one. Callers deduplicating by fingerprint
+ * alone, as the library tools do, accept that a distinct board is dropped on a collision; among n boards this
+ * happens with probability about n^2/2^65, under one in a million for ten million boards.
+ *
+ * Instances reuse internal buffers and are therefore not safe for concurrent use.
+ */
+public class Canonicalizer {
+
+    /** Largest board size canonicalized over the whole symmetry group. */
+    public static final int FULL_GROUP_MAX_SIZE = 9;
+
+    private final int size;
+    private final int subsquareSize;
+    private final int[][] columnOrders; // Source column of each destination column, null above FULL_GROUP_MAX_SIZE
+    private final byte[][] grids;        // The board and its transposition
+    private final byte[] canonical;
+    private final byte[] row;
+    private final byte[] rowLabels;
+
+    /**
+     * Creates a canonicalizer for boards of the given size.
+     *
+     * @param size  Side length of the boards (a perfect square).
+     */
+    public Canonicalizer(int size) {
+        BoardTransform.identity(size); // Validates the size
+        this.size = size;
+        this.subsquareSize = (int)Math.sqrt(size);
+        this.columnOrders = (size <= FULL_GROUP_MAX_SIZE) ? enumerateColumnOrders() : null;
+        this.grids = new byte[][] {new byte[size*size], new byte[size*size]};
+        this.canonical = new byte[size*size];
+        this.row = new byte[size];
+        this.rowLabels = new byte[size+1];
+    }
+
+    /**
+     * Computes the canonical form of a board.
+     *
+     * @param cells Cells indexed by row*size+column, 0 for empty.
+     * @param dest  Array of size*size elements receiving the canonical form; may be 'cells'.
+     */
+    public void canonicalize(byte[] cells, byte[] dest) {
+        if (columnOrders == null) relabelInOrder(cells, dest);
+        else {
+            minlex(cells);
+            System.arraycopy(canonical, 0, dest, 0, canonical.length);
+        }
+    }
+
+    /**
+     * Computes the 64 bit fingerprint of a board's canonical form. Equivalent boards have equal fingerprints; above
+     * 9x9 only relabelings count as equivalent. Inequivalent boards rarely have equal fingerprints too.
+     *
+     * @param cells Cells indexed by row*size+column, 0 for empty.
+     * @return  Fingerprint of the canonical form.
+     */
+    public long fingerprint(byte[] cells) {
+        if (columnOrders == null) relabelInOrder(cells, canonical);
+        else minlex(cells);
+        return hash(canonical);
+    }
+
+    /**
+     * Hashes a cell array (FNV-1a followed by a 64 bit finalizer to spread the bits).
+     *
+     * @param cells Cells to hash.
+     * @return  64 bit hash.
+     */
+    public static long hash(byte[] cells) {
+        long h = 0xcbf29ce484222325L;
+        for (byte cell: cells) {
+            h ^= cell;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Partial canonical board: the grid and column order used and the source rows taken so far.
+     */
+    private static final class Candidate {
+        final int grid;
+        final int[] columns;
+        final byte[] labels;  // Canonical label of every number, 0 while unseen
+        final int nextLabel;
+        final int usedRows;   // Bit set of source rows already placed
+        final int band;       // Source band of the band being filled
+
+        Candidate(int grid, int[] columns, byte[] labels, int nextLabel, int usedRows, int band) {
+            this.grid = grid;
+            this.columns = columns;
+            this.labels = labels;
+            this.nextLabel = nextLabel;
+            this.usedRows = usedRows;
+            this.band = band;
+        }
+    }
+
+    /**
+     * Fills 'canonical' with the minlex form of the board, building it one row at a time and keeping only the
+     * candidates that produce the smallest row.
+     */
+    private void minlex(byte[] cells) {
+        System.arraycopy(cells, 0, grids[0], 0, cells.length);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) grids[1][c*size+r] = cells[r*size+c];
+        }
+        ArrayList<Candidate> candidates = new ArrayList<>();
+        for (int g = 0; g < 2; g++) {
+            for (int[] columns: columnOrders) candidates.add(new Candidate(g, columns, new byte[size+1], 1, 0, -1));
+        }
+        ArrayList<Candidate> next = new ArrayList<>();
+        for (int destRow = 0; destRow < size; destRow++) {
+            boolean newBand = destRow % subsquareSize == 0;
+            int bestOffset = destRow*size;
+            boolean first = true;
+            next.clear();
+            for (Candidate candidate: candidates) {
+                int lowBand = newBand ? 0 : candidate.band;
+                int highBand = newBand ? subsquareSize-1 : candidate.band;
+                for (int band = lowBand; band <= highBand; band++) {
+                    if (newBand && (candidate.usedRows >> (band*subsquareSize) & ((1 << subsquareSize) - 1)) != 0)
+                        continue; // Band already placed
+                    for (int sourceRow = band*subsquareSize; sourceRow < (band+1)*subsquareSize; sourceRow++) {
+                        if ((candidate.usedRows & 1 << sourceRow) != 0) continue;
+                        int order = compareRow(candidate, sourceRow, bestOffset, first);
+                        if (order > 0) continue;
+                        if (order < 0 || first) {
+                            next.clear();
+                            System.arraycopy(row, 0, canonical, bestOffset, size);
+                            first = false;
+                        }
+                        next.add(extend(candidate, sourceRow, band));
+                    }
+                }
+            }
+            ArrayList<Candidate> swap = candidates;
+            candidates = next;
+            next = swap;
+        }
+    }
+
+    /**
+     * Relabels the candidate's next row into 'row' and compares it with the best row found so far for this position.
+     *
+     * @return  Negative, zero or positive as the row is smaller than, equal to or larger than the best row; always
+     *          negative when no best row exists yet.
+     */
+    private int compareRow(Candidate candidate, int sourceRow, int bestOffset, boolean first) {
+        byte[] grid = grids[candidate.grid];
+        byte[] labels = candidate.labels;
+        int nextLabel = candidate.nextLabel;
+        int seen = 0; // Numbers first labeled within this row, so the candidate's labels stay untouched
+        int order = first ? -1 : 0;
+        for (int k = 0; k < size; k++) {
+            int number = grid[sourceRow*size + candidate.columns[k]];
+            int label = 0;
+            if (number != 0) {
+                label = labels[number];
+                if (label == 0) {
+                    if ((seen & 1 << number) == 0) {
+                        seen |= 1 << number;
+                        rowLabels[number] = (byte)nextLabel++;
+                    }
+                    label = rowLabels[number];
+                }
+            }
+            row[k] = (byte)label;
+            if (order == 0) {
+                int best = canonical[bestOffset + k];
+                if (label != best) {
+                    order = label - best;
+                    if (order > 0) return order;
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Creates the candidate that places 'sourceRow' next, recording the labels given in its row.
+     */
+    private Candidate extend(Candidate candidate, int sourceRow, int band) {
+        byte[] labels = candidate.labels.clone();
+        int nextLabel = candidate.nextLabel;
+        byte[] grid = grids[candidate.grid];
+        for (int k = 0; k < size; k++) {
+            int number = grid[sourceRow*size + candidate.columns[k]];
+            if (number != 0 && labels[number] == 0) labels[number] = (byte)nextLabel++;
+        }
+        return new Candidate(candidate.grid, candidate.columns, labels, nextLabel,
+                candidate.usedRows | 1 << sourceRow, band);
+    }
+
+    /**
+     * Relabels numbers in order of first appearance, the canonical form used above FULL_GROUP_MAX_SIZE.
+     */
+    private void relabelInOrder(byte[] cells, byte[] dest) {
+        byte[] labels = new byte[size+1];
+        int nextLabel = 1;
+        for (int i = 0; i < cells.length; i++) {
+            int number = cells[i];
+            if (number != 0 && labels[number] == 0) labels[number] = (byte)nextLabel++;
+            dest[i] = labels[number];
+        }
+    }
+
+    /**
+     * Enumerates every column order allowed by the symmetry group: a stack order combined with a column order
+     * within each stack.
+     */
+    private int[][] enumerateColumnOrders() {
+        ArrayList<int[]> permutations = new ArrayList<>();
+        permute(new int[subsquareSize], 0, 0, permutations);
+        int count = permutations.size();
+        int total = count;
+        for (int i = 0; i < subsquareSize; i++) total *= count;
+        int[][] orders = new int[total][size];
+        for (int index = 0; index < total; index++) {
+            int rest = index;
+            int[] stacks = permutations.get(rest % count);
+            rest /= count;
+            for (int s = 0; s < subsquareSize; s++) {
+                int[] within = permutations.get(rest % count);
+                rest /= count;
+                for (int k = 0; k < subsquareSize; k++)
+                    orders[index][s*subsquareSize + k] = stacks[s]*subsquareSize + within[k];
+            }
+        }
+        return orders;
+    }
+
+    private static void permute(int[] prefix, int length, int used, ArrayList<int[]> permutations) {
+        if (length == prefix.length) {
+            permutations.add(prefix.clone());
+            return;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((used & 1 << i) != 0) continue;
+            prefix[length] = i;
+            permute(prefix, length+1, used | 1 << i, permutations);
+        }
+    }
+}
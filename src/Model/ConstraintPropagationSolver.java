@@ -0,0 +1,76 @@
+/************************************************************************
+ * ConstraintPropagationSolver.java                                     *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a sudoku solver that deduces as much as possible  *
+ * before guessing. After every placement it applies naked and hidden  *
+ * singles over all rows, columns and subsquares, and when it has to    *
+ * guess it branches on the cell with the fewest candidates (MRV).      *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Constraint propagating depth-first solver. Failed guesses are undone through the PropagationGrid trail, so the
+ * search never copies the board.
+ */
+public class ConstraintPropagationSolver implements SudokuSolver {
+
+    private PropagationGrid grid;
+    private long nodes;
+    private int limit;
+    private int solutionsFound;
+
+    @Override
+    public SolverResult solve(int size, byte[] cells) {
+        long start = System.nanoTime();
+        byte[] solution = null;
+        if (run(size, cells, 1) > 0) solution = grid.values.clone();
+        return new SolverResult(solution, nodes, System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean solveInto(int size, byte[] cells, byte[] solution) {
+        if (run(size, cells, 1) == 0) return false;
+        System.arraycopy(grid.values, 0, solution, 0, size*size);
+        return true;
+    }
+
+    @Override
+    public int countSolutions(int size, byte[] cells, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Solution limit must be positive.");
+        return run(size, cells, limit);
+    }
+
+    /**
+     * Loads the puzzle and searches until 'limit' solutions are found or the search space is exhausted. When the
+     * limit is reached the grid is left holding the last solution found.
+     *
+     * @return  Number of solutions found.
+     */
+    private int run(int size, byte[] cells, int limit) {
+        nodes = 0;
+        this.limit = limit;
+        solutionsFound = 0;
+        if (grid == null || grid.size != size) grid = new PropagationGrid(size);
+        if (grid.load(cells)) search();
+        return solutionsFound;
+    }
+
+    /**
+     * Depth-first search over the propagated grid.
+     *
+     * @return  True once the solution limit has been reached.
+     */
+    private boolean search() {
+        nodes++;
+        int cell = grid.chooseCell();
+        if (cell < 0) return ++solutionsFound >= limit;
+        int mark = grid.mark();
+        for (int m = grid.candidates[cell]; m != 0; m &= m - 1) {
+            if (grid.assign(cell, Candidates.lowest(m)) && grid.propagate() && search()) return true;
+            grid.undo(mark);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,252 @@
+/************************************************************************
+ * DancingLinksSolver.java                                              *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a sudoku solver based on Knuth's Algorithm X      *
+ * using Dancing Links. The puzzle is reduced to an exact cover problem *
+ * with four constraint columns per cell (cell filled, number in row,   *
+ * number in column and number in subsquare) and one matrix row per     *
+ * candidate placement. The links are stored in parallel int arrays    *
+ * rather than node objects and are reused between solves.              *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Exact cover sudoku solver. Constraints already satisfied by the givens are left out of the matrix and only
+ * candidate placements consistent with the givens become matrix rows, which keeps the matrix small for sparse and
+ * dense puzzles alike.
+ */
+public class DancingLinksSolver implements SudokuSolver {
+
+    private static final int ROOT = 0;
+
+    /*  Node storage: index 0 is the root, 1..columns are column headers, the rest are matrix nodes   */
+    private int[] left = new int[0];
+    private int[] right = new int[0];
+    private int[] up = new int[0];
+    private int[] down = new int[0];
+    private int[] column = new int[0];
+    private int[] placement = new int[0]; // Encoded placement (cell*size + number-1) of each matrix node
+    private int[] columnSize = new int[0];
+
+    private int[] chosen = new int[0]; // Placements on the current search path
+    private int[] rowOccupancy = new int[0];
+    private int[] columnOccupancy = new int[0];
+    private int[] boxOccupancy = new int[0];
+
+    private int size;
+    private long nodes;
+    private byte[] solution; // Receives the first solution found, null when only counting
+    private int limit;
+    private int solutionsFound;
+
+    @Override
+    public SolverResult solve(int size, byte[] cells) {
+        long start = System.nanoTime();
+        byte[] result = cells.clone();
+        if (run(size, cells, 1, result) == 0) result = null;
+        return new SolverResult(result, this.nodes, System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean solveInto(int size, byte[] cells, byte[] solution) {
+        if (solution != cells) System.arraycopy(cells, 0, solution, 0, size*size);
+        return run(size, cells, 1, solution) > 0;
+    }
+
+    @Override
+    public int countSolutions(int size, byte[] cells, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Solution limit must be positive.");
+        return run(size, cells, limit, null);
+    }
+
+    /**
+     * Builds the matrix and searches until 'limit' solutions are found or the search space is exhausted.
+     *
+     * @param solution  Array pre-filled with the givens that receives the first solution, or null.
+     * @return  Number of solutions found.
+     */
+    private int run(int size, byte[] cells, int limit, byte[] solution) {
+        this.nodes = 0;
+        this.solution = solution;
+        this.limit = limit;
+        this.solutionsFound = 0;
+        if (build(size, cells)) search(0);
+        this.solution = null;
+        return this.solutionsFound;
+    }
+
+    /**
+     * Builds the exact cover matrix for the given puzzle.
+     *
+     * @return  False if the givens conflict with each other, true otherwise.
+     */
+    private boolean build(int size, byte[] cells) {
+        this.size = size;
+        int numCells = size*size;
+        int boxSize = (int)Math.sqrt(size);
+        ensureCapacity(size);
+        if (!Candidates.occupancy(size, cells, rowOccupancy, columnOccupancy, boxOccupancy)) return false;
+
+        int full = Candidates.full(size);
+        int candidateRows = 0;
+        for (int i = 0; i < numCells; i++) {
+            if (cells[i] != 0) continue;
+            int row = i/size, col = i%size;
+            int used = rowOccupancy[row] | columnOccupancy[col] | boxOccupancy[(row/boxSize)*boxSize + col/boxSize];
+            candidateRows += Candidates.count(full & ~used);
+        }
+        int columns = 4*numCells;
+        int nodeCount = 1 + columns + 4*candidateRows;
+        if (left.length < nodeCount) {
+            left = new int[nodeCount];
+            right = new int[nodeCount];
+            up = new int[nodeCount];
+            down = new int[nodeCount];
+            column = new int[nodeCount];
+            placement = new int[nodeCount];
+        }
+        if (columnSize.length < columns + 1) columnSize = new int[columns + 1];
+
+        // Link the headers of unsatisfied constraint columns into the root list
+        left[ROOT] = right[ROOT] = ROOT;
+        for (int c = 1; c <= columns; c++) {
+            up[c] = down[c] = c;
+            column[c] = c;
+            columnSize[c] = 0;
+            if (isSatisfied(c - 1, cells, numCells, boxSize)) {
+                left[c] = right[c] = c;
+                continue;
+            }
+            left[c] = left[ROOT];
+            right[c] = ROOT;
+            right[left[ROOT]] = c;
+            left[ROOT] = c;
+        }
+
+        // Add a matrix row for every candidate placement
+        int next = columns + 1;
+        for (int i = 0; i < numCells; i++) {
+            if (cells[i] != 0) continue;
+            int row = i/size, col = i%size, box = (row/boxSize)*boxSize + col/boxSize;
+            int candidates = full & ~(rowOccupancy[row] | columnOccupancy[col] | boxOccupancy[box]);
+            for (int m = candidates; m != 0; m &= m - 1) {
+                int d = Candidates.lowest(m) - 1;
+                int first = next;
+                appendNode(next++, 1 + i, first, i*size + d);
+                appendNode(next++, 1 + numCells + row*size + d, first, i*size + d);
+                appendNode(next++, 1 + 2*numCells + col*size + d, first, i*size + d);
+                appendNode(next++, 1 + 3*numCells + box*size + d, first, i*size + d);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines whether a constraint column is already satisfied by the givens.
+     */
+    private boolean isSatisfied(int c, byte[] cells, int numCells, int boxSize) {
+        int kind = c / numCells;
+        int index = c % numCells;
+        int bit = 1 << (index % size);
+        switch (kind) {
+            case 0:
+                return cells[index] != 0;
+            case 1:
+                return (rowOccupancy[index/size] & bit) != 0;
+            case 2:
+                return (columnOccupancy[index/size] & bit) != 0;
+            default:
+                return (boxOccupancy[index/size] & bit) != 0;
+        }
+    }
+
+    /**
+     * Appends a node to the bottom of its column and to the end of the matrix row starting at 'first'.
+     */
+    private void appendNode(int node, int col, int first, int encodedPlacement) {
+        column[node] = col;
+        placement[node] = encodedPlacement;
+        up[node] = up[col];
+        down[node] = col;
+        down[up[col]] = node;
+        up[col] = node;
+        columnSize[col]++;
+        if (node == first) {
+            left[node] = right[node] = node;
+        }
+        else {
+            left[node] = left[first];
+            right[node] = first;
+            right[left[first]] = node;
+            left[first] = node;
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (rowOccupancy.length < size) {
+            rowOccupancy = new int[size];
+            columnOccupancy = new int[size];
+            boxOccupancy = new int[size];
+        }
+        if (chosen.length < size*size) chosen = new int[size*size];
+    }
+
+    /**
+     * Algorithm X search. Always branches on the column with the fewest remaining rows.
+     *
+     * @param depth Number of placements on the current search path.
+     * @return  True once the solution limit has been reached.
+     */
+    private boolean search(int depth) {
+        if (right[ROOT] == ROOT) {
+            if (solutionsFound++ == 0 && solution != null)
+                for (int k = 0; k < depth; k++) solution[chosen[k] / size] = (byte)(chosen[k] % size + 1);
+            return solutionsFound >= limit;
+        }
+        nodes++;
+        int best = right[ROOT];
+        for (int c = right[best]; c != ROOT && columnSize[best] > 1; c = right[c])
+            if (columnSize[c] < columnSize[best]) best = c;
+        if (columnSize[best] == 0) return false;
+
+        cover(best);
+        for (int r = down[best]; r != best; r = down[r]) {
+            chosen[depth] = placement[r];
+            for (int j = right[r]; j != r; j = right[j]) cover(column[j]);
+            boolean found = search(depth + 1);
+            for (int j = left[r]; j != r; j = left[j]) uncover(column[j]);
+            if (found) {
+                uncover(best);
+                return true;
+            }
+        }
+        uncover(best);
+        return false;
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
@@ -0,0 +1,28 @@
+/************************************************************************
+ * Difficulty.java                                                      *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file enumerates the puzzle difficulty buckets assigned by the   *
+ * DifficultyGrader and used to pick boards for a new game.             *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Puzzle difficulty, given by the hardest solving technique a puzzle requires.
+ */
+public enum Difficulty {
+    EASY("Easy"),
+    MEDIUM("Medium"),
+    HARD("Hard"),
+    EXPERT("Expert");
+
+    private final String displayName;
+
+    Difficulty(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /** Gets the difficulty name shown to users. */
+    public String getDisplayName() { return this.displayName; }
+}
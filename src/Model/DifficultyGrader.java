@@ -0,0 +1,362 @@
+/************************************************************************
+ * DifficultyGrader.java                                                *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a puzzle grader that solves puzzles the way a     *
+ * person would, with candidate based techniques of increasing         *
+ * difficulty: naked and hidden singles, locked candidates (pointing    *
+ * and claiming), naked and hidden pairs and triples, X-Wing and        *
+ * Swordfish. The hardest technique needed sets the difficulty bucket   *
+ * and the weighted count of technique applications sets the score.    *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Human-style puzzle grader. The cheapest technique that makes progress is always applied first. When none applies
+ * the grader fills the cell with the fewest candidates from the solution found by the solver engine, which counts as
+ * a guess and makes the puzzle EXPERT. Only puzzles with a unique solution are graded: on a puzzle with several
+ * solutions, no technique can tell the solutions apart, so every such puzzle would end in guesses and be rated EXPERT
+ * whatever its real difficulty. Instances reuse a solver engine and are therefore not safe for concurrent use.
+ */
+public class DifficultyGrader {
+
+    /**
+     * Solving techniques in the order they are tried, with the weight added to the score on every application and
+     * the difficulty bucket of puzzles needing them.
+     */
+    public enum Technique {
+        NAKED_SINGLE(1, Difficulty.EASY),
+        HIDDEN_SINGLE(2, Difficulty.EASY),
+        LOCKED_CANDIDATES(5, Difficulty.MEDIUM),
+        NAKED_PAIR(8, Difficulty.MEDIUM),
+        HIDDEN_PAIR(10, Difficulty.MEDIUM),
+        NAKED_TRIPLE(15, Difficulty.HARD),
+        HIDDEN_TRIPLE(20, Difficulty.HARD),
+        X_WING(25, Difficulty.HARD),
+        SWORDFISH(40, Difficulty.HARD),
+        GUESS(100, Difficulty.EXPERT);
+
+        private final int weight;
+        private final Difficulty difficulty;
+
+        Technique(int weight, Difficulty difficulty) {
+            this.weight = weight;
+            this.difficulty = difficulty;
+        }
+
+        /** Gets the score added for every application of the technique. */
+        public int getWeight() { return this.weight; }
+
+        /** Gets the difficulty of puzzles needing the technique. */
+        public Difficulty getDifficulty() { return this.difficulty; }
+    }
+
+    /**
+     * Action applied to a subset found by findSubset.
+     */
+    private interface SubsetAction {
+        /** Applies the subset and returns whether anything changed. */
+        boolean apply(int chosen, int union);
+    }
+
+    private final SudokuSolver solver = SolverType.getDefault().create();
+    private int size;
+    private int subsquareSize;
+    private int[][] units; // Rows, then columns, then subsquares
+    private int[][] peers;
+    private byte[] values;
+    private int[] candidates;
+    private int empty;
+
+    /**
+     * Grades a puzzle.
+     *
+     * @param size  Side length of the board (a perfect square).
+     * @param cells Puzzle cells indexed by row*size+column, 0 for empty.
+     * @return  Grade of the puzzle, or null if it does not have exactly one solution and cannot be graded.
+     */
+    public GradeResult grade(int size, byte[] cells) {
+        if (solver.countSolutions(size, cells, 2) != 1) return null;
+        SolverResult result = solver.solve(size, cells);
+        byte[] solution = result.getSolution();
+        load(size, cells);
+        Technique hardest = Technique.NAKED_SINGLE;
+        int score = 0, guesses = 0;
+        while (empty > 0) {
+            Technique technique = applyNextTechnique();
+            if (technique == null) { // No technique applies, fill the most constrained cell from the solution
+                int cell = mostConstrainedCell();
+                place(cell, solution[cell]);
+                technique = Technique.GUESS;
+                guesses++;
+            }
+            score += technique.getWeight();
+            if (technique.ordinal() > hardest.ordinal()) hardest = technique;
+        }
+        return new GradeResult(hardest.getDifficulty(), score, guesses);
+    }
+
+    /**
+     * Tries every technique in order and applies the first one making progress.
+     *
+     * @return  Technique applied, or null if none applies.
+     */
+    private Technique applyNextTechnique() {
+        if (nakedSingle()) return Technique.NAKED_SINGLE;
+        if (hiddenSingle()) return Technique.HIDDEN_SINGLE;
+        if (lockedCandidates()) return Technique.LOCKED_CANDIDATES;
+        if (nakedSubset(2)) return Technique.NAKED_PAIR;
+        if (hiddenSubset(2)) return Technique.HIDDEN_PAIR;
+        if (nakedSubset(3)) return Technique.NAKED_TRIPLE;
+        if (hiddenSubset(3)) return Technique.HIDDEN_TRIPLE;
+        if (fish(2)) return Technique.X_WING;
+        if (fish(3)) return Technique.SWORDFISH;
+        return null;
+    }
+
+    private void load(int size, byte[] cells) {
+        if (this.size != size) {
+            this.size = size;
+            this.subsquareSize = (int)Math.sqrt(size);
+            this.units = PropagationGrid.units(size);
+            this.peers = PropagationGrid.peers(size);
+            this.values = new byte[size*size];
+            this.candidates = new int[size*size];
+        }
+        int full = Candidates.full(size);
+        System.arraycopy(cells, 0, values, 0, cells.length);
+        empty = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (values[cell] != 0) {
+                candidates[cell] = 0;
+                continue;
+            }
+            int used = 0;
+            for (int peer: peers[cell]) used |= (values[peer] != 0) ? Candidates.bit(values[peer]) : 0;
+            candidates[cell] = full & ~used;
+            empty++;
+        }
+    }
+
+    private void place(int cell, int number) {
+        values[cell] = (byte)number;
+        candidates[cell] = 0;
+        empty--;
+        int clear = ~Candidates.bit(number);
+        for (int peer: peers[cell]) candidates[peer] &= clear;
+    }
+
+    /** Removes candidates from a cell and returns whether any were present. */
+    private boolean eliminate(int cell, int mask) {
+        if ((candidates[cell] & mask) == 0) return false;
+        candidates[cell] &= ~mask;
+        return true;
+    }
+
+    private int mostConstrainedCell() {
+        int best = -1, bestCount = Integer.MAX_VALUE;
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] != 0) continue;
+            int count = Candidates.count(candidates[cell]);
+            if (count < bestCount) {
+                best = cell;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    /** Fills a cell holding a single candidate. */
+    private boolean nakedSingle() {
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] == 0 && Candidates.count(candidates[cell]) == 1) {
+                place(cell, Candidates.lowest(candidates[cell]));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Fills the only cell of a unit able to hold some number. */
+    private boolean hiddenSingle() {
+        for (int[] unit: units) {
+            for (int number = 1; number <= size; number++) {
+                int bit = Candidates.bit(number), found = -1, count = 0;
+                for (int cell: unit) {
+                    if ((candidates[cell] & bit) != 0) {
+                        found = cell;
+                        count++;
+                    }
+                }
+                if (count == 1) {
+                    place(found, number);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pointing: a number confined to one line within a subsquare is removed from the rest of that line. Claiming: a
+     * number confined to one subsquare within a line is removed from the rest of that subsquare.
+     */
+    private boolean lockedCandidates() {
+        for (int box = 0; box < size; box++) {
+            int[] boxCells = units[2*size + box];
+            for (int number = 1; number <= size; number++) {
+                int bit = Candidates.bit(number), row = -1, col = -1, count = 0;
+                for (int cell: boxCells) {
+                    if ((candidates[cell] & bit) == 0) continue;
+                    row = (count == 0 || row == cell/size) ? cell/size : -2;
+                    col = (count == 0 || col == cell%size) ? cell%size : -2;
+                    count++;
+                }
+                if (count < 2) continue;
+                boolean changed = false;
+                for (int i = 0; i < size; i++) {
+                    if (row >= 0 && boxOf(row*size + i) != box) changed |= eliminate(row*size + i, bit);
+                    if (col >= 0 && boxOf(i*size + col) != box) changed |= eliminate(i*size + col, bit);
+                }
+                if (changed) return true;
+            }
+        }
+        for (int line = 0; line < 2*size; line++) {
+            for (int number = 1; number <= size; number++) {
+                int bit = Candidates.bit(number), box = -1, count = 0;
+                for (int cell: units[line]) {
+                    if ((candidates[cell] & bit) == 0) continue;
+                    box = (count == 0 || box == boxOf(cell)) ? boxOf(cell) : -2;
+                    count++;
+                }
+                if (count < 2 || box < 0) continue;
+                boolean changed = false;
+                for (int cell: units[2*size + box]) {
+                    if (!contains(units[line], cell)) changed |= eliminate(cell, bit);
+                }
+                if (changed) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Naked subset: k cells of a unit whose candidates together are exactly k numbers; those numbers are removed from
+     * the unit's other cells.
+     */
+    private boolean nakedSubset(int k) {
+        int[] masks = new int[size];
+        for (int[] unit: units) {
+            for (int j = 0; j < size; j++) {
+                int count = Candidates.count(candidates[unit[j]]);
+                masks[j] = (count >= 2 && count <= k) ? candidates[unit[j]] : 0;
+            }
+            boolean changed = findSubset(masks, k, 0, 0, 0, 0, (chosen, union) -> {
+                boolean removed = false;
+                for (int j = 0; j < size; j++) {
+                    if ((chosen & 1 << j) == 0) removed |= eliminate(unit[j], union);
+                }
+                return removed;
+            });
+            if (changed) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Hidden subset: k numbers which, within a unit, fit only in the same k cells; every other candidate is removed
+     * from those cells.
+     */
+    private boolean hiddenSubset(int k) {
+        int[] positions = new int[size];
+        for (int[] unit: units) {
+            for (int number = 1; number <= size; number++) {
+                int bit = Candidates.bit(number), mask = 0;
+                for (int j = 0; j < size; j++) {
+                    if ((candidates[unit[j]] & bit) != 0) mask |= 1 << j;
+                }
+                int count = Integer.bitCount(mask);
+                positions[number-1] = (count >= 2 && count <= k) ? mask : 0;
+            }
+            boolean changed = findSubset(positions, k, 0, 0, 0, 0, (chosen, union) -> {
+                boolean removed = false;
+                for (int j = 0; j < size; j++) {
+                    if ((union & 1 << j) != 0) removed |= eliminate(unit[j], ~chosen);
+                }
+                return removed;
+            });
+            if (changed) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fish of order k (X-Wing for 2, Swordfish for 3): k rows in which a number fits only within the same k columns
+     * remove the number from those columns' other rows, and the same with rows and columns exchanged.
+     */
+    private boolean fish(int k) {
+        int[] lines = new int[size];
+        for (int number = 1; number <= size; number++) {
+            int bit = Candidates.bit(number);
+            for (int transposed = 0; transposed < 2; transposed++) {
+                boolean byColumn = transposed == 1;
+                for (int line = 0; line < size; line++) {
+                    int mask = 0;
+                    for (int j = 0; j < size; j++) {
+                        if ((candidates[byColumn ? j*size + line : line*size + j] & bit) != 0) mask |= 1 << j;
+                    }
+                    int count = Integer.bitCount(mask);
+                    lines[line] = (count >= 2 && count <= k) ? mask : 0;
+                }
+                boolean changed = findSubset(lines, k, 0, 0, 0, 0, (chosen, union) -> {
+                    boolean removed = false;
+                    for (int line = 0; line < size; line++) {
+                        if ((chosen & 1 << line) != 0) continue;
+                        for (int j = 0; j < size; j++) {
+                            if ((union & 1 << j) != 0)
+                                removed |= eliminate(byColumn ? j*size + line : line*size + j, bit);
+                        }
+                    }
+                    return removed;
+                });
+                if (changed) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Searches for k non-zero masks whose union has exactly k bits and applies the action to each such subset until
+     * one changes the board.
+     *
+     * @param masks     Candidate masks; zero masks are skipped.
+     * @param k         Subset size.
+     * @param start     First index still available.
+     * @param depth     Number of masks chosen so far.
+     * @param chosen    Bit set of the chosen indices.
+     * @param union     Union of the chosen masks.
+     * @return  True once the action changed the board.
+     */
+    private boolean findSubset(int[] masks, int k, int start, int depth, int chosen, int union, SubsetAction action) {
+        if (depth == k) return Integer.bitCount(union) == k && action.apply(chosen, union);
+        for (int i = start; i < masks.length; i++) {
+            if (masks[i] == 0) continue;
+            int combined = union | masks[i];
+            if (Integer.bitCount(combined) > k) continue;
+            if (findSubset(masks, k, i+1, depth+1, chosen | 1 << i, combined, action)) return true;
+        }
+        return false;
+    }
+
+    private int boxOf(int cell) {
+        return (cell/size/subsquareSize)*subsquareSize + (cell%size)/subsquareSize;
+    }
+
+    private static boolean contains(int[] unit, int cell) {
+        for (int other: unit) {
+            if (other == cell) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,241 @@
+/************************************************************************
+ * DifficultyIndex.java                                                 *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the difficulty index of a board list file: the    *
+ * positions of the boards in each difficulty bucket, so a new game of  *
+ * a requested difficulty is picked in constant time. The index is      *
+ * built by grading every board in parallel and is stored next to the  *
+ * board list as a small text file, one line per difficulty.            *
+ ************************************************************************/
+
+package Model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable mapping from difficulty to the positions of the boards of that difficulty in a board list. Boards
+ * without a unique solution cannot be graded and are left out of every bucket.
+ */
+public final class DifficultyIndex {
+
+    /** Graders are not thread safe, so every thread of the parallel stream keeps its own. */
+    private static final ThreadLocal<DifficultyGrader> GRADERS = ThreadLocal.withInitial(DifficultyGrader::new);
+
+    /** Boards read from a file and graded in parallel at a time by the streaming build. */
+    private static final int GRADE_CHUNK = 4096;
+
+    private final int[][] buckets; // Board positions, indexed by Difficulty ordinal
+
+    private DifficultyIndex(int[][] buckets) {
+        this.buckets = buckets;
+    }
+
+    /**
+     * Builds an index by grading a board list file, then writes it.
+     * Usage: DifficultyIndex boardSize boardListFile indexFile
+     * @param args  Board size, board list file to grade and index file to write.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: DifficultyIndex boardSize boardListFile indexFile");
+            return;
+        }
+        int boardSize = Integer.parseInt(args[0]);
+        long start = System.nanoTime();
+        try {
+            DifficultyIndex index = build(boardSize, new File(args[1]));
+            for (Difficulty difficulty: Difficulty.values())
+                System.out.printf("%-8s %6d boards%n", difficulty.getDisplayName(), index.getBoards(difficulty).length);
+            System.out.printf("Graded in %.2f s%n", (System.nanoTime() - start) / 1e9);
+            index.write(new File(args[2]));
+        }
+        catch (IOException ex) {
+            System.out.println(ex);
+        }
+    }
+
+    /**
+     * Grades every board of a board list, in parallel.
+     *
+     * @param boardSize Side length of the boards.
+     * @param boards    Boards in board list order.
+     * @return  Index of the boards' positions by difficulty.
+     */
+    public static DifficultyIndex build(int boardSize, List<SudokuBoard> boards) {
+        GradeResult[] grades = IntStream.range(0, boards.size()).parallel().mapToObj(i -> {
+            byte[] cells = new byte[boardSize*boardSize];
+            boards.get(i).copyCells(cells);
+            return GRADERS.get().grade(boardSize, cells);
+        }).toArray(GradeResult[]::new);
+        return fromGrades(grades);
+    }
+
+    private static DifficultyIndex fromGrades(GradeResult[] grades) {
+        byte[] levels = new byte[grades.length];
+        for (int i = 0; i < grades.length; i++) levels[i] = level(grades[i]);
+        return fromLevels(levels, levels.length);
+    }
+
+    /** Builds an index from the difficulty ordinal of every board, -1 for boards left out. */
+    private static DifficultyIndex fromLevels(byte[] levels, int count) {
+        Difficulty[] difficulties = Difficulty.values();
+        int[][] buckets = new int[difficulties.length][];
+        for (Difficulty difficulty: difficulties) {
+            buckets[difficulty.ordinal()] = IntStream.range(0, count)
+                    .filter(i -> levels[i] == difficulty.ordinal()).toArray();
+        }
+        return new DifficultyIndex(buckets);
+    }
+
+    private static byte level(GradeResult grade) {
+        return (grade == null) ? -1 : (byte)grade.getDifficulty().ordinal();
+    }
+
+    /**
+     * Grades every board of a board list file, streaming it: boards are read and graded in parallel a chunk at a
+     * time, so only a byte per board is kept, whatever the file's size.
+     *
+     * @param boardSize Side length of the boards.
+     * @param boardList Board list file in either format of BoardListParser.
+     * @return  Index of the boards' positions by difficulty.
+     * @throws IOException  If the file cannot be read or is malformed.
+     */
+    public static DifficultyIndex build(int boardSize, File boardList) throws IOException {
+        ChunkGrader grader = new ChunkGrader(boardSize);
+        new BoardListParser(boardSize).parse(boardList, grader);
+        grader.gradeChunk();
+        return fromLevels(grader.levels, grader.graded);
+    }
+
+    /**
+     * Consumer of the streaming build, collecting boards into a fixed chunk and grading each full chunk in parallel.
+     */
+    private static final class ChunkGrader implements BoardListParser.BoardConsumer {
+        private final int boardSize;
+        private final byte[][] chunk;
+        private int waiting = 0; // Boards in the chunk not yet graded
+        private byte[] levels = new byte[GRADE_CHUNK];
+        private int graded = 0;
+
+        ChunkGrader(int boardSize) {
+            this.boardSize = boardSize;
+            this.chunk = new byte[GRADE_CHUNK][boardSize*boardSize];
+        }
+
+        @Override
+        public void accept(byte[] cells) {
+            System.arraycopy(cells, 0, chunk[waiting++], 0, cells.length);
+            if (waiting == GRADE_CHUNK) gradeChunk();
+        }
+
+        void gradeChunk() {
+            if (graded + waiting > levels.length) levels = java.util.Arrays.copyOf(levels, 2*levels.length);
+            byte[] into = levels;
+            int offset = graded;
+            IntStream.range(0, waiting).parallel()
+                    .forEach(i -> into[offset + i] = level(GRADERS.get().grade(boardSize, chunk[i])));
+            graded += waiting;
+            waiting = 0;
+        }
+    }
+
+    /**
+     * Grades every puzzle of a puzzle store, in parallel.
+     *
+     * @param store Puzzles in board list order.
+     * @return  Index of the puzzles' positions by difficulty.
+     */
+    public static DifficultyIndex build(PuzzleStore store) {
+        int boardSize = store.getBoardSize();
+        GradeResult[] grades = IntStream.range(0, store.getCount()).parallel().mapToObj(i -> {
+            byte[] cells = new byte[boardSize*boardSize];
+            store.getPuzzle(i, cells);
+            return GRADERS.get().grade(boardSize, cells);
+        }).toArray(GradeResult[]::new);
+        return fromGrades(grades);
+    }
+
+    /**
+     * Reads an index written by write.
+     *
+     * @param indexFile File to be read.
+     * @return  Index read, or null if the file does not exist or is malformed.
+     */
+    public static DifficultyIndex read(File indexFile) {
+        int[][] buckets = new int[Difficulty.values().length][0];
+        try (java.util.Scanner input = new java.util.Scanner(indexFile)) {
+            while (input.hasNextLine()) {
+                String line = input.nextLine().trim();
+                if (line.isEmpty()) continue;
+                String[] tokens = line.split("\\s+");
+                int[] positions = new int[tokens.length - 1];
+                for (int i = 1; i < tokens.length; i++) positions[i-1] = Integer.parseInt(tokens[i]);
+                buckets[Difficulty.valueOf(tokens[0]).ordinal()] = positions;
+            }
+        }
+        catch (IOException | IllegalArgumentException ex) { // Missing file, unknown difficulty or bad position
+            System.out.println(ex);
+            return null;
+        }
+        return new DifficultyIndex(buckets);
+    }
+
+    /**
+     * Writes the index, one line per difficulty holding its name followed by the board positions.
+     *
+     * @param indexFile File to be written; overwritten if it exists.
+     * @throws IOException  If the file cannot be written.
+     */
+    public void write(File indexFile) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(indexFile))) {
+            for (Difficulty difficulty: Difficulty.values()) {
+                writer.write(difficulty.name());
+                for (int position: buckets[difficulty.ordinal()]) writer.write(" " + position);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Gets the positions of the boards of a difficulty.
+     *
+     * @param difficulty    Requested difficulty.
+     * @return  Board positions in increasing order; the array must not be modified.
+     */
+    public int[] getBoards(Difficulty difficulty) {
+        return buckets[difficulty.ordinal()];
+    }
+
+    /**
+     * Picks the position of a random board of a difficulty.
+     *
+     * @param difficulty    Requested difficulty.
+     * @param rand          Source of randomness.
+     * @return  Board position, or -1 if no board has the difficulty.
+     */
+    public int pick(Difficulty difficulty, Random rand) {
+        int[] positions = buckets[difficulty.ordinal()];
+        return (positions.length == 0) ? -1 : positions[rand.nextInt(positions.length)];
+    }
+
+    /**
+     * Gets the difficulties having at least one board.
+     *
+     * @return  Available difficulties, easiest first.
+     */
+    public List<Difficulty> getAvailableDifficulties() {
+        List<Difficulty> available = new ArrayList<>();
+        for (Difficulty difficulty: Difficulty.values()) {
+            if (buckets[difficulty.ordinal()].length > 0) available.add(difficulty);
+        }
+        return available;
+    }
+}
@@ -0,0 +1,202 @@
+/************************************************************************
+ * FileBoardSink.java                                                   *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the file handling shared by the text and binary  *
+ * board sinks: one open channel for the sink's whole life, a buffer    *
+ * written in batches, the sync policy and the rename of a finished     *
+ * file into place.                                                     *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Base of the file board sinks. A sink either creates its file, writing to 'name.part' and renaming it to 'name' on
+ * commit so readers never see a partial file, or appends to an existing one, where records become visible as they
+ * are flushed. Closing a created file's sink without committing deletes the partial file; closing an appending sink
+ * commits it.
+ */
+public abstract class FileBoardSink implements BoardSink {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    protected final int boardSize;
+    private final File target;
+    private final File file; // File written to; 'target' itself when appending
+    private final boolean append;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final int recordBytes; // Largest encoded record
+    private SyncPolicy syncPolicy = SyncPolicy.NEVER;
+    private int batchSize = 0;
+    private int pending = 0; // Records added since the last flush
+    private long count = 0;
+    private boolean done = false;
+
+    /**
+     * Opens the sink's file.
+     *
+     * @param target        File the puzzles end up in.
+     * @param boardSize     Side length of the boards.
+     * @param append        True to append to the target, false to create it (replacing it on commit).
+     * @param recordBytes   Largest number of bytes a record is encoded to.
+     * @throws IOException  If the file cannot be opened.
+     */
+    protected FileBoardSink(File target, int boardSize, boolean append, int recordBytes) throws IOException {
+        if (boardSize < 1 || boardSize > 31) throw new IllegalArgumentException("Unsupported board size.");
+        this.boardSize = boardSize;
+        this.target = target;
+        this.append = append;
+        this.file = append ? target : new File(target.getPath() + ".part");
+        this.recordBytes = recordBytes;
+        this.buffer = ByteBuffer.allocate(Math.max(BUFFER_BYTES, recordBytes));
+        this.channel = append
+                ? FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)
+                : FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+        this.channel.position(channel.size());
+    }
+
+    /**
+     * Sets when the file is forced to disk. The default is never.
+     *
+     * @param syncPolicy    Sync policy.
+     */
+    public void setSyncPolicy(SyncPolicy syncPolicy) {
+        this.syncPolicy = syncPolicy;
+    }
+
+    /**
+     * Sets the number of puzzles after which the sink flushes on its own. With the default of 0 the buffer is only
+     * written when full, on flush and on commit.
+     *
+     * @param batchSize Puzzles per batch, or 0 to flush only when the buffer is full.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 0) throw new IllegalArgumentException("Batch size cannot be negative.");
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public final void add(byte[] puzzle, byte[] solution) throws IOException {
+        if (done) throw new IOException("Board sink of " + target + " is closed.");
+        if (buffer.remaining() < recordBytes) writeBuffer();
+        encode(puzzle, solution, buffer);
+        count++;
+        if (batchSize > 0 && ++pending >= batchSize) flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writeBuffer();
+        if (syncPolicy == SyncPolicy.ON_FLUSH) channel.force(false);
+    }
+
+    @Override
+    public void sync() throws IOException {
+        writeBuffer();
+        channel.force(false);
+    }
+
+    @Override
+    public void commit() throws IOException {
+        if (done) return;
+        done = true;
+        boolean complete = false;
+        try {
+            writeBuffer();
+            finish();
+            if (syncPolicy != SyncPolicy.NEVER || !append) channel.force(false); // Renamed data must be on disk
+            complete = true;
+        }
+        finally {
+            channel.close();
+            if (!complete && !append) Files.deleteIfExists(file.toPath());
+        }
+        if (append) return;
+        try {
+            Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException ex) {
+            Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Commits an appending sink. Discards the partial file of a creating sink that was not committed, so an
+     * exception thrown while producing puzzles never publishes an incomplete file.
+     *
+     * @throws IOException  If an appending sink cannot write.
+     */
+    @Override
+    public void close() throws IOException {
+        if (done) return;
+        if (append) {
+            commit();
+            return;
+        }
+        done = true;
+        channel.close();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Override
+    public long getCount() { return this.count; }
+
+    /**
+     * Encodes one record at the buffer's position.
+     *
+     * @param puzzle    Puzzle cells.
+     * @param solution  Solved cells, or null.
+     * @param dest      Buffer with at least the largest record's length remaining.
+     */
+    protected abstract void encode(byte[] puzzle, byte[] solution, ByteBuffer dest);
+
+    /**
+     * Called on commit after the last record is written, before the file is synced and renamed. Does nothing by
+     * default.
+     *
+     * @throws IOException  If the file cannot be written.
+     */
+    protected void finish() throws IOException {}
+
+    /**
+     * Writes bytes at the current end of the output at once, bypassing the buffer, for headers written before any
+     * record.
+     *
+     * @param bytes Bytes to write.
+     * @throws IOException  If the file cannot be written.
+     */
+    protected void write(ByteBuffer bytes) throws IOException {
+        writeBuffer();
+        while (bytes.hasRemaining()) channel.write(bytes);
+    }
+
+    /**
+     * Writes bytes at an absolute position of the file without moving the append position, for headers.
+     *
+     * @param bytes     Bytes to write.
+     * @param position  Position in the file.
+     * @throws IOException  If the file cannot be written.
+     */
+    protected void writeAt(ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) position += channel.write(bytes, position);
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+        pending = 0;
+    }
+}
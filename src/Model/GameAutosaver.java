@@ -0,0 +1,140 @@
+/************************************************************************
+ * GameAutosaver.java                                                   *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides saving and loading of games in progress. Games    *
+ * are snapshotted on the calling thread, which takes microseconds, and *
+ * written to disk by a background thread, so the user interface never  *
+ * waits on the file system.                                            *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Background writer of saved games. Autosaves of the same saver are coalesced: a burst of moves made while a write
+ * is in progress ends in a single write of the latest game. Every save file is written to a temporary file which then
+ * replaces it, so a crash mid-write keeps the previous save. The writer thread exits once idle, so a pending save
+ * keeps the program alive just long enough to finish and never blocks it from exiting.
+ */
+public class GameAutosaver {
+
+    private final File file;
+    private final AtomicReference<byte[]> pending = new AtomicReference<>(); // Latest autosave not yet written
+    private final ThreadPoolExecutor writer;
+
+    /**
+     * Creates a saver autosaving to the given file.
+     *
+     * @param file  Autosave file.
+     */
+    public GameAutosaver(File file) {
+        this.file = file;
+        this.writer = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Sudoku autosave");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        this.writer.allowCoreThreadTimeOut(true);
+    }
+
+    /** Gets the autosave file. */
+    public File getFile() { return this.file; }
+
+    /**
+     * Snapshots a game and schedules it to be written to the autosave file, replacing any autosave not yet written.
+     *
+     * @param board Game to be saved.
+     */
+    public void autosave(SudokuBoard board) {
+        if (pending.getAndSet(board.toSnapshot()) != null) return; // A scheduled write will pick up the new snapshot
+        writer.execute(() -> {
+            byte[] snapshot = pending.getAndSet(null);
+            if (snapshot != null) write(file, snapshot);
+        });
+    }
+
+    /**
+     * Snapshots a game and schedules it to be written to the given file, after any earlier saves.
+     *
+     * @param board         Game to be saved.
+     * @param saveFile      File to be written.
+     */
+    public void save(SudokuBoard board, File saveFile) {
+        byte[] snapshot = board.toSnapshot();
+        writer.execute(() -> write(saveFile, snapshot));
+    }
+
+    /**
+     * Waits until every save scheduled so far is written.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void flush() throws InterruptedException {
+        try {
+            writer.submit(() -> {}).get();
+        }
+        catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause()); // The empty task cannot fail
+        }
+    }
+
+    /**
+     * Loads a game saved by a saver or by writeSnapshot.
+     *
+     * @param saveFile  Save file.
+     * @return  Saved game, with its undo and redo histories.
+     * @throws IOException  If the file cannot be read or is not a saved game.
+     */
+    public static SudokuBoard load(File saveFile) throws IOException {
+        try {
+            return SudokuBoard.fromSnapshot(Files.readAllBytes(saveFile.toPath()));
+        }
+        catch (IOException ex) {
+            throw new IOException(saveFile + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Writes a game snapshot to a file on the calling thread, atomically replacing the file if it exists.
+     *
+     * @param saveFile  File to be written.
+     * @param snapshot  Snapshot from SudokuBoard.toSnapshot.
+     * @throws IOException  If the file cannot be written.
+     */
+    public static void writeSnapshot(File saveFile, byte[] snapshot) throws IOException {
+        File temp = new File(saveFile.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp)) {
+            stream.write(snapshot);
+            stream.getFD().sync(); // On disk before it replaces the previous save
+        }
+        try {
+            Files.move(temp.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Writes a snapshot on the writer thread, reporting failures since there is no caller to throw to. */
+    private static void write(File saveFile, byte[] snapshot) {
+        try {
+            writeSnapshot(saveFile, snapshot);
+        }
+        catch (IOException ex) {
+            System.out.println("Saving game to " + saveFile + " failed: " + ex);
+        }
+    }
+}
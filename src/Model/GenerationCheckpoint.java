@@ -0,0 +1,128 @@
+/************************************************************************
+ * GenerationCheckpoint.java                                            *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the saved progress of a BatchGenerator run: the   *
+ * settings it was started with, the next job to write, the number of   *
+ * boards written, the length of the output file and the fingerprints   *
+ * of the puzzles written, so an interrupted run resumes exactly where  *
+ * its last checkpoint left it.                                         *
+ ************************************************************************/
+
+package Model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Binary checkpoint of a generation run. Every job draws from its own random stream derived from the seed and the
+ * job index, so the seed and the next job index are the whole random state. A checkpoint is written to a temporary
+ * file which then replaces the previous one, so a crash while writing leaves the previous checkpoint intact.
+ */
+final class GenerationCheckpoint {
+
+    private static final int MAGIC = 0x53444b43; // "SDKC"
+    private static final int VERSION = 2;
+
+    final int boardSize;
+    final int clues;
+    final int maxClues;
+    final boolean deduplicate;
+    final int shard;
+    final int shards;
+    final long seed;
+    final long nextJob; // Index of the next job to be written
+    final int written; // Boards written by the run, towards its count
+    final long outputLength; // Bytes of the output file that hold written boards
+    final Set<Long> fingerprints;
+
+    GenerationCheckpoint(int boardSize, int clues, int maxClues, boolean deduplicate, int shard, int shards,
+                         long seed, long nextJob, int written, long outputLength, Set<Long> fingerprints) {
+        this.boardSize = boardSize;
+        this.clues = clues;
+        this.maxClues = maxClues;
+        this.deduplicate = deduplicate;
+        this.shard = shard;
+        this.shards = shards;
+        this.seed = seed;
+        this.nextJob = nextJob;
+        this.written = written;
+        this.outputLength = outputLength;
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * Reads a checkpoint written by write.
+     * @param file  Checkpoint file.
+     * @return  Checkpoint read, or null if the file does not exist.
+     * @throws IOException  If the file cannot be read or is not a checkpoint.
+     */
+    static GenerationCheckpoint read(File file) throws IOException {
+        if (!file.exists()) return null;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION)
+                throw new IOException(file + " is not a generation checkpoint.");
+            int boardSize = input.readInt();
+            int clues = input.readInt();
+            int maxClues = input.readInt();
+            boolean deduplicate = input.readBoolean();
+            int shard = input.readInt();
+            int shards = input.readInt();
+            long seed = input.readLong();
+            long nextJob = input.readLong();
+            int written = input.readInt();
+            long outputLength = input.readLong();
+            int count = input.readInt();
+            Set<Long> fingerprints = new HashSet<>(Math.max(16, count*4/3 + 1));
+            for (int i = 0; i < count; i++) fingerprints.add(input.readLong());
+            return new GenerationCheckpoint(boardSize, clues, maxClues, deduplicate, shard, shards, seed, nextJob,
+                    written, outputLength, fingerprints);
+        }
+    }
+
+    /**
+     * Writes the checkpoint, atomically replacing the file if it exists.
+     * @param file  Checkpoint file.
+     * @throws IOException  If the file cannot be written.
+     */
+    void write(File file) throws IOException {
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(temp);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(boardSize);
+            output.writeInt(clues);
+            output.writeInt(maxClues);
+            output.writeBoolean(deduplicate);
+            output.writeInt(shard);
+            output.writeInt(shards);
+            output.writeLong(seed);
+            output.writeLong(nextJob);
+            output.writeInt(written);
+            output.writeLong(outputLength);
+            output.writeInt(fingerprints.size());
+            for (long fingerprint: fingerprints) output.writeLong(fingerprint);
+            output.flush();
+            stream.getFD().sync(); // On disk before it replaces the previous checkpoint
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
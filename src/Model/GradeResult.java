@@ -0,0 +1,39 @@
+/************************************************************************
+ * GradeResult.java                                                     *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the value returned by the DifficultyGrader: the   *
+ * difficulty bucket of a puzzle and the score it was rated with.       *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Immutable outcome of grading a puzzle.
+ */
+public final class GradeResult {
+
+    private final Difficulty difficulty;
+    private final int score; // Sum of the weights of every technique application
+    private final int guesses; // Cells filled from the solution because no technique applied
+
+    public GradeResult(Difficulty difficulty, int score, int guesses) {
+        this.difficulty = difficulty;
+        this.score = score;
+        this.guesses = guesses;
+    }
+
+    /** Gets the difficulty bucket of the puzzle. */
+    public Difficulty getDifficulty() { return this.difficulty; }
+
+    /** Gets the puzzle's score; harder puzzles score higher. */
+    public int getScore() { return this.score; }
+
+    /** Gets the number of cells that had to be guessed. */
+    public int getGuesses() { return this.guesses; }
+
+    @Override
+    public String toString() {
+        return String.format("%s (score %d, %d guesses)", difficulty.getDisplayName(), score, guesses);
+    }
+}
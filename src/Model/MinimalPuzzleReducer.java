@@ -0,0 +1,189 @@
+/************************************************************************
+ * MinimalPuzzleReducer.java                                            *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a reducer turning a unique-solution puzzle into a *
+ * minimal one, where no single clue can be removed without losing      *
+ * uniqueness, with the uniqueness checks of several candidate          *
+ * removals running concurrently on independent scratch boards.         *
+ ************************************************************************/
+
+package Model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel minimal puzzle reducer. Clues are visited in random order, and each round checks the removal of each of
+ * the next 'parallelism' clues of that order on its own, against the current puzzle. The first clue whose removal
+ * keeps the solution unique is removed. Every clue whose check failed is kept for good, the ones before the removed
+ * clue and the ones after it alike: removing more clues can only add solutions, so a clue needed for uniqueness stays
+ * needed in every puzzle with fewer clues. Clues after the removed one whose checks passed are checked again against
+ * the new puzzle, so no failed check is ever wasted and only passing ones can be. To keep that waste low, a round
+ * checks as many clues as the last round needed to find a removal, one while most removals pass and up to
+ * 'parallelism' once most fail. The result is the same puzzle the sequential reduction (SudokuGenerator.removeClues)
+ * produces when it visits clues in the same order.
+ */
+public class MinimalPuzzleReducer {
+
+    /** Solvers are not thread safe, so every worker thread keeps its own. */
+    private static final ThreadLocal<SudokuSolver> SOLVERS =
+            ThreadLocal.withInitial(() -> SolverType.getDefault().create());
+
+    private final int parallelism;
+    private final ExecutorService workers; // Null when checks run on the calling thread
+
+    /**
+     * Creates a reducer checking one candidate removal per available processor at a time.
+     */
+    public MinimalPuzzleReducer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a reducer.
+     *
+     * @param parallelism   Number of removals checked concurrently; 1 checks them one at a time on the calling
+     *                      thread.
+     */
+    public MinimalPuzzleReducer(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be positive.");
+        this.parallelism = parallelism;
+        this.workers = (parallelism == 1) ? null : Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "Puzzle reducer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reduces a puzzle to a minimal one.
+     *
+     * @param size      Side length of the board.
+     * @param puzzle    Puzzle cells indexed by row*size+column, 0 for empty; must have a unique solution. Not
+     *                  modified.
+     * @param rand      Source of randomness choosing the order clues are tried in.
+     * @return  New array holding the minimal puzzle.
+     */
+    public byte[] reduce(int size, byte[] puzzle, Random rand) {
+        return reduce(size, puzzle, 0, rand);
+    }
+
+    /**
+     * Removes clues from a puzzle while it keeps a unique solution, until the target clue count is reached or the
+     * puzzle is minimal.
+     *
+     * @param size      Side length of the board.
+     * @param puzzle    Puzzle cells indexed by row*size+column, 0 for empty; must have a unique solution. Not
+     *                  modified.
+     * @param clues     Target number of clues; 0 reduces the puzzle to a minimal one.
+     * @param rand      Source of randomness choosing the order clues are tried in.
+     * @return  New array holding the reduced puzzle.
+     */
+    public byte[] reduce(int size, byte[] puzzle, int clues, Random rand) {
+        if (SOLVERS.get().countSolutions(size, puzzle, 2) != 1)
+            throw new IllegalArgumentException("Puzzle does not have a unique solution.");
+        int[] order = new int[puzzle.length];
+        int count = 0;
+        for (int cell = 0; cell < puzzle.length; cell++) {
+            if (puzzle[cell] != 0) order[count++] = cell;
+        }
+        for (int i = count-1; i > 0; i--) { // Fisher-Yates shuffle
+            int j = rand.nextInt(i+1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+        byte[] current = puzzle.clone();
+        boolean[] passed = new boolean[parallelism];
+        int remaining = count;
+        int width = 1; // Checks per round, following the number of checks the last round needed to find a removal
+        int next = 0; // Clues before 'next' in the order are either removed or known to be needed
+        while (next < count && remaining > clues) {
+            int batch = Math.min(width, count - next);
+            checkRemovals(size, current, order, next, batch, passed);
+            int first = 0;
+            while (first < batch && !passed[first]) first++;
+            if (first == batch) { // Every clue of the batch is needed
+                next += batch;
+                width = Math.min(parallelism, 2*width);
+                continue;
+            }
+            width = first + 1;
+            current[order[next + first]] = 0;
+            remaining--;
+            int retry = next + batch; // Passing clues after the removed one move up to just before here, in order
+            for (int k = batch-1; k > first; k--) {
+                if (passed[k]) order[--retry] = order[next + k];
+            }
+            next = retry;
+        }
+        return current;
+    }
+
+    /**
+     * Reduces the fixed numbers of a board to a minimal puzzle. Numbers that are not fixed are ignored.
+     *
+     * @param board Board whose fixed numbers form a unique-solution puzzle. Not modified.
+     * @param rand  Source of randomness choosing the order clues are tried in.
+     * @return  New board holding the minimal puzzle as fixed numbers.
+     */
+    public SudokuBoard reduce(SudokuBoard board, Random rand) {
+        int size = board.getSize();
+        byte[] cells = new byte[size*size];
+        board.copyCells(cells);
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (!board.isFixed(cell/size, cell%size)) cells[cell] = 0;
+        }
+        return SudokuGenerator.toBoard(size, reduce(size, cells, rand));
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown() {
+        if (workers != null) workers.shutdownNow();
+    }
+
+    /**
+     * Checks, concurrently, whether removing each of the 'batch' clues of the order from 'next' on, one at a time,
+     * keeps the solution of the current puzzle unique.
+     */
+    private void checkRemovals(int size, byte[] current, int[] order, int next, int batch, boolean[] passed) {
+        if (batch == 1) {
+            passed[0] = isUniqueWithout(size, current, order[next]);
+            return;
+        }
+        List<Callable<Boolean>> checks = new ArrayList<>(batch);
+        for (int k = 0; k < batch; k++) {
+            int cell = order[next + k];
+            checks.add(() -> isUniqueWithout(size, current, cell));
+        }
+        try {
+            List<Future<Boolean>> results = workers.invokeAll(checks);
+            for (int k = 0; k < batch; k++) passed[k] = results.get(k).get();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reduction interrupted.", ex);
+        }
+        catch (ExecutionException ex) {
+            throw new IllegalStateException("Uniqueness check failed.", ex.getCause());
+        }
+    }
+
+    /**
+     * Checks on a scratch copy of the puzzle whether it keeps a unique solution without the given clue.
+     */
+    private static boolean isUniqueWithout(int size, byte[] current, int cell) {
+        byte[] scratch = current.clone();
+        scratch[cell] = 0;
+        return SOLVERS.get().countSolutions(size, scratch, 2) == 1;
+    }
+}
@@ -0,0 +1,173 @@
+/************************************************************************
+ * ParallelSolver.java                                                  *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a multi-threaded sudoku solver for large and hard *
+ * boards. The constraint propagating search is split at its shallow    *
+ * branch points into fork/join subtasks that idle worker threads can   *
+ * steal, and every subtask stops as soon as the subtasks together find *
+ * the requested number of solutions.                                   *
+ ************************************************************************/
+
+package Model;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fork/join version of ConstraintPropagationSolver. Each guess made within the first 'splitDepth' levels of the
+ * search tree becomes its own subtask working on a copy of the grid; deeper levels are searched sequentially with
+ * trail-based undo. Solution counting uses the same task tree. Boards of side length 4 or less are always solved on
+ * the calling thread, since the fork overhead would dominate. A solver created with its own pool holds worker threads
+ * until it is closed.
+ */
+public class ParallelSolver implements SudokuSolver, AutoCloseable {
+
+    /** Largest board side length solved on the calling thread regardless of parallelism. */
+    public static final int SEQUENTIAL_MAX_SIZE = 4;
+
+    /** Default number of search tree levels that are split into subtasks. */
+    public static final int DEFAULT_SPLIT_DEPTH = 4;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool; // True if the pool was created by this solver and must be shut down by close
+    private final int splitDepth;
+    private final ConstraintPropagationSolver sequential = new ConstraintPropagationSolver();
+
+    /** Creates a solver that runs on the common fork/join pool. */
+    public ParallelSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH, false);
+    }
+
+    /**
+     * Creates a solver with its own pool of the given parallelism level, which close shuts down.
+     *
+     * @param parallelism   Number of worker threads; 1 solves every board on the calling thread.
+     * @param splitDepth    Number of search tree levels split into subtasks.
+     */
+    public ParallelSolver(int parallelism, int splitDepth) {
+        this(parallelism > 1 ? new ForkJoinPool(parallelism) : null, splitDepth, true);
+    }
+
+    private ParallelSolver(ForkJoinPool pool, int splitDepth, boolean ownsPool) {
+        if (splitDepth < 0) {
+            if (ownsPool && pool != null) pool.shutdown();
+            throw new IllegalArgumentException("Split depth cannot be negative.");
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.ownsPool = ownsPool;
+    }
+
+    /** Shuts down the solver's own pool, if it has one; the common pool is left running. */
+    @Override
+    public void close() {
+        if (ownsPool && pool != null) pool.shutdown();
+    }
+
+    @Override
+    public SolverResult solve(int size, byte[] cells) {
+        if (pool == null || size <= SEQUENTIAL_MAX_SIZE) return sequential.solve(size, cells);
+        long start = System.nanoTime();
+        PropagationGrid grid = new PropagationGrid(size);
+        if (!grid.load(cells)) return new SolverResult(null, 1, System.nanoTime() - start);
+        Search search = new Search(1);
+        pool.invoke(new SearchTask(search, grid, 0));
+        return new SolverResult(search.solution.get(), search.nodes.sum(), System.nanoTime() - start);
+    }
+
+    @Override
+    public int countSolutions(int size, byte[] cells, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("Solution limit must be positive.");
+        if (pool == null || size <= SEQUENTIAL_MAX_SIZE) return sequential.countSolutions(size, cells, limit);
+        PropagationGrid grid = new PropagationGrid(size);
+        if (!grid.load(cells)) return 0;
+        Search search = new Search(limit);
+        pool.invoke(new SearchTask(search, grid, 0));
+        return Math.min(search.solutions.get(), limit);
+    }
+
+    /**
+     * State shared by every subtask of one solve.
+     */
+    private static final class Search {
+        final int limit;
+        final AtomicInteger solutions = new AtomicInteger();
+        final AtomicReference<byte[]> solution = new AtomicReference<>();
+        final LongAdder nodes = new LongAdder();
+
+        Search(int limit) {
+            this.limit = limit;
+        }
+
+        boolean isFinished() { return solutions.get() >= limit; }
+
+        /** Records a solution and returns whether the limit has been reached. */
+        boolean found(byte[] values) {
+            solution.compareAndSet(null, values.clone());
+            return solutions.incrementAndGet() >= limit;
+        }
+    }
+
+    /**
+     * Searches the subtree rooted at the given grid, forking one subtask per candidate while shallower than the
+     * split depth.
+     */
+    private final class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final PropagationGrid grid;
+        private final int depth;
+
+        SearchTask(Search search, PropagationGrid grid, int depth) {
+            this.search = search;
+            this.grid = grid;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.isFinished()) return;
+            int cell = grid.chooseCell();
+            if (depth >= splitDepth || cell < 0 || Candidates.count(grid.candidates[cell]) < 2) {
+                long[] nodes = new long[1];
+                searchSequentially(nodes);
+                search.nodes.add(nodes[0]);
+                return;
+            }
+            search.nodes.increment();
+            ArrayList<SearchTask> subtasks = new ArrayList<>();
+            for (int m = grid.candidates[cell]; m != 0; m &= m - 1) {
+                PropagationGrid branch = grid.copy();
+                if (branch.assign(cell, Candidates.lowest(m)) && branch.propagate())
+                    subtasks.add(new SearchTask(search, branch, depth + 1));
+            }
+            invokeAll(subtasks);
+        }
+
+        /**
+         * Depth-first search on this task's grid, abandoned once the tasks together reach the solution limit.
+         *
+         * @param nodes Single element counter of visited nodes.
+         * @return  True once the solution limit has been reached.
+         */
+        private boolean searchSequentially(long[] nodes) {
+            nodes[0]++;
+            int cell = grid.chooseCell();
+            if (cell < 0) return search.found(grid.values);
+            if (search.isFinished()) return false;
+            int mark = grid.mark();
+            for (int m = grid.candidates[cell]; m != 0; m &= m - 1) {
+                if (grid.assign(cell, Candidates.lowest(m)) && grid.propagate() && searchSequentially(nodes))
+                    return true;
+                grid.undo(mark);
+            }
+            return false;
+        }
+    }
+}
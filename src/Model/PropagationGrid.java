@@ -0,0 +1,253 @@
+/************************************************************************
+ * PropagationGrid.java                                                 *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the search state shared by the constraint         *
+ * propagating solver engines: cell values, candidate bitmasks and a    *
+ * trail of every change so a failed guess can be undone in place      *
+ * instead of copying the board.                                        *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Mutable puzzle state supporting constraint propagation (naked and hidden singles) and trail-based backtracking.
+ * Not thread safe; parallel searches work on copies.
+ */
+final class PropagationGrid {
+
+    private static final int[][][] PEER_CACHE = new int[26][][];
+    private static final int[][][] UNIT_CACHE = new int[26][][];
+
+    final int size;
+    final int numCells;
+    private final int full;
+    private final int[][] peers; // Cells sharing a row, column or subsquare with each cell
+    private final int[][] units; // Cells of every row, column and subsquare
+
+    final byte[] values;
+    final int[] candidates;
+    private int assigned;
+
+    /*  Trail entries hold the index of the changed slot (numCells + cell for values) and its previous content   */
+    private final int[] trailIndex;
+    private final int[] trailValue;
+    private int trailSize;
+
+    private final int[] pending; // Cells reduced to a single candidate that still need to be assigned
+    private int pendingSize;
+
+    PropagationGrid(int size) {
+        this.size = size;
+        this.numCells = size*size;
+        this.full = Candidates.full(size);
+        this.peers = peers(size);
+        this.units = units(size);
+        this.values = new byte[numCells];
+        this.candidates = new int[numCells];
+        int trailCapacity = numCells*(size + 2);
+        this.trailIndex = new int[trailCapacity];
+        this.trailValue = new int[trailCapacity];
+        this.pending = new int[numCells];
+    }
+
+    /**
+     * Creates an independent copy of this grid's current state. The trail is not copied, so the copy cannot undo
+     * changes made before it was created.
+     */
+    PropagationGrid copy() {
+        PropagationGrid copy = new PropagationGrid(size);
+        System.arraycopy(values, 0, copy.values, 0, numCells);
+        System.arraycopy(candidates, 0, copy.candidates, 0, numCells);
+        copy.assigned = assigned;
+        return copy;
+    }
+
+    /**
+     * Resets the grid to the given puzzle and propagates its givens.
+     *
+     * @param cells Puzzle cells indexed by row*size+column, 0 for empty.
+     * @return  False if the givens lead to a contradiction, true otherwise.
+     */
+    boolean load(byte[] cells) {
+        java.util.Arrays.fill(values, (byte)0);
+        java.util.Arrays.fill(candidates, full);
+        assigned = 0;
+        trailSize = 0;
+        pendingSize = 0;
+        boolean consistent = true;
+        for (int i = 0; i < numCells && consistent; i++) {
+            int number = cells[i];
+            if (number == 0) continue;
+            consistent = number > 0 && number <= size && assign(i, number);
+        }
+        consistent = consistent && propagate();
+        trailSize = 0; // The givens form the base state and are never undone
+        return consistent;
+    }
+
+    /** Gets whether every cell holds a number. */
+    boolean isSolved() { return assigned == numCells; }
+
+    /** Gets a marker of the current state that can later be restored with undo. */
+    int mark() { return trailSize; }
+
+    /**
+     * Reverts every change made since the given marker was taken.
+     */
+    void undo(int mark) {
+        while (trailSize > mark) {
+            trailSize--;
+            int index = trailIndex[trailSize];
+            if (index >= numCells) {
+                values[index - numCells] = (byte)trailValue[trailSize];
+                assigned--;
+            }
+            else candidates[index] = trailValue[trailSize];
+        }
+        pendingSize = 0;
+    }
+
+    /**
+     * Places a number in a cell and removes it from the candidates of the cell's peers. Peers left with a single
+     * candidate are queued for propagate.
+     *
+     * @return  False if the placement contradicts the current state, true otherwise.
+     */
+    boolean assign(int cell, int number) {
+        if (values[cell] != 0) return values[cell] == number;
+        int bit = Candidates.bit(number);
+        if ((candidates[cell] & bit) == 0) return false;
+        trail(numCells + cell, values[cell]);
+        values[cell] = (byte)number;
+        assigned++;
+        setCandidates(cell, bit);
+        for (int peer: peers[cell]) {
+            int mask = candidates[peer];
+            if ((mask & bit) == 0 || values[peer] != 0) continue;
+            mask &= ~bit;
+            if (mask == 0) return false;
+            setCandidates(peer, mask);
+            if ((mask & (mask - 1)) == 0) pending[pendingSize++] = peer;
+        }
+        return true;
+    }
+
+    /**
+     * Repeatedly places naked singles (cells with one candidate) and hidden singles (numbers with one possible cell
+     * in a row, column or subsquare) until neither remains.
+     *
+     * @return  False if a contradiction is found, true otherwise.
+     */
+    boolean propagate() {
+        while (true) {
+            while (pendingSize > 0) {
+                int cell = pending[--pendingSize];
+                if (values[cell] == 0 && !assign(cell, Candidates.lowest(candidates[cell]))) {
+                    pendingSize = 0;
+                    return false;
+                }
+            }
+            boolean placed = false;
+            for (int[] unit: units) {
+                int once = 0, twice = 0, solved = 0;
+                for (int cell: unit) {
+                    int mask = candidates[cell];
+                    twice |= once & mask;
+                    once |= mask;
+                    if (values[cell] != 0) solved |= mask;
+                }
+                if (once != full) return false; // Some number has no remaining place in this unit
+                for (int hidden = once & ~twice & ~solved; hidden != 0; hidden &= hidden - 1) {
+                    int bit = hidden & -hidden;
+                    int target = -1;
+                    for (int cell: unit) {
+                        if ((candidates[cell] & bit) != 0) {
+                            target = cell;
+                            break;
+                        }
+                    }
+                    if (target < 0 || !assign(target, Candidates.lowest(bit))) {
+                        pendingSize = 0;
+                        return false;
+                    }
+                    placed = true;
+                }
+            }
+            if (!placed && pendingSize == 0) return true;
+        }
+    }
+
+    /**
+     * Chooses the unassigned cell with the fewest remaining candidates (minimum remaining values).
+     *
+     * @return  Index of the chosen cell, or -1 if every cell is assigned.
+     */
+    int chooseCell() {
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < numCells; i++) {
+            if (values[i] != 0) continue;
+            int count = Candidates.count(candidates[i]);
+            if (count < bestCount) {
+                best = i;
+                bestCount = count;
+                if (count <= 2) break;
+            }
+        }
+        return best;
+    }
+
+    private void setCandidates(int cell, int mask) {
+        if (candidates[cell] == mask) return;
+        trail(cell, candidates[cell]);
+        candidates[cell] = mask;
+    }
+
+    private void trail(int index, int previous) {
+        trailIndex[trailSize] = index;
+        trailValue[trailSize++] = previous;
+    }
+
+    /**
+     * Gets the peer table of a board size, building and caching it on first use.
+     */
+    static synchronized int[][] peers(int size) {
+        if (PEER_CACHE[size] != null) return PEER_CACHE[size];
+        int boxSize = (int)Math.sqrt(size);
+        int numCells = size*size;
+        int[][] table = new int[numCells][];
+        int[] buffer = new int[3*size];
+        for (int cell = 0; cell < numCells; cell++) {
+            int row = cell/size, col = cell%size;
+            int count = 0;
+            for (int other = 0; other < numCells; other++) {
+                if (other == cell) continue;
+                int r = other/size, c = other%size;
+                if (r == row || c == col || (r/boxSize == row/boxSize && c/boxSize == col/boxSize))
+                    buffer[count++] = other;
+            }
+            table[cell] = java.util.Arrays.copyOf(buffer, count);
+        }
+        PEER_CACHE[size] = table;
+        return table;
+    }
+
+    /**
+     * Gets the unit table (rows, then columns, then subsquares) of a board size, building and caching it on first use.
+     */
+    static synchronized int[][] units(int size) {
+        if (UNIT_CACHE[size] != null) return UNIT_CACHE[size];
+        int boxSize = (int)Math.sqrt(size);
+        int[][] table = new int[3*size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                table[i][j] = i*size + j;
+                table[size + i][j] = j*size + i;
+                table[2*size + i][j] = ((i/boxSize)*boxSize + j/boxSize)*size + (i%boxSize)*boxSize + j%boxSize;
+            }
+        }
+        UNIT_CACHE[size] = table;
+        return table;
+    }
+}
@@ -0,0 +1,265 @@
+/************************************************************************
+ * PuzzleLibrary.java                                                   *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the binary puzzle library format and its reader.  *
+ * A library is a header followed by fixed-width records holding the    *
+ * given mask and the bit-packed cells of one puzzle, and optionally    *
+ * its solution. The file is memory mapped, so opening it reads only    *
+ * the header and any puzzle is decoded by index in constant time.      *
+ * The file also converts board list text files to libraries.           *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only, thread safe view of a binary puzzle library. Layout, all numbers big-endian:
+ * <pre>
+ * header (32 bytes)  magic "SDKL", version (short), flags (short), board size (int), bits per cell (int),
+ *                    record length (int), puzzle count (long), reserved (int)
+ * record             given mask, one bit per cell in row-major order, rounded up to whole bytes;
+ *                    then the cells packed 'bits per cell' at a time, least significant bit first
+ * </pre>
+ * When the SOLUTIONS flag is set the packed cells are the solution and the puzzle is the solution's cells under the
+ * given mask; otherwise the packed cells are the puzzle itself, 0 for empty. Cells take 4 bits up to 9x9 boards and
+ * 5 bits up to 25x25, so a 9x9 record is 52 bytes with its solution, against 162 bytes of text for the puzzle alone.
+ */
+public final class PuzzleLibrary {
+
+    static final int MAGIC = 0x53444b4c; // "SDKL"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    /** Flag set when every record stores the puzzle's solution. */
+    public static final short SOLUTIONS = 1;
+
+    private final int boardSize;
+    private final int cellBits;
+    private final int recordBytes;
+    private final long count;
+    private final short flags;
+    private final MappedByteBuffer[] segments; // Files above 2 GB are mapped in several whole-record segments
+    private final int recordsPerSegment;
+
+    private PuzzleLibrary(int boardSize, int cellBits, int recordBytes, long count, short flags,
+                          MappedByteBuffer[] segments, int recordsPerSegment) {
+        this.boardSize = boardSize;
+        this.cellBits = cellBits;
+        this.recordBytes = recordBytes;
+        this.count = count;
+        this.flags = flags;
+        this.segments = segments;
+        this.recordsPerSegment = recordsPerSegment;
+    }
+
+    /**
+     * Converts a board list text file to a binary library.
+     * Usage: PuzzleLibrary boardSize boardListFile libraryFile [solutions]
+     * @param args  Board size, text file to read, library file to write and, optionally, "solutions" to store the
+     *              solution of every puzzle.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: PuzzleLibrary boardSize boardListFile libraryFile [solutions]");
+            return;
+        }
+        int boardSize = Integer.parseInt(args[0]);
+        File library = new File(args[2]);
+        try {
+            long start = System.nanoTime();
+            long converted = convert(boardSize, new File(args[1]), library,
+                    args.length > 3 && args[3].equals("solutions"));
+            System.out.printf("Converted %d boards to %s (%d bytes) in %.2f s%n",
+                    converted, library, library.length(), (System.nanoTime() - start) / 1e9);
+        }
+        catch (IOException ex) {
+            System.out.println(ex);
+        }
+    }
+
+    /**
+     * Converts a board list text file to a binary library, in board list order.
+     *
+     * @param boardSize     Side length of the boards.
+     * @param boardList     Text file in either format of BoardListParser; streamed, never held in memory whole.
+     * @param library       Library file to write; overwritten if it exists.
+     * @param solutions     True to solve every puzzle and store its solution.
+     * @return  Number of puzzles written.
+     * @throws IOException  If a file cannot be read or written, or a puzzle has no solution when storing them.
+     */
+    public static long convert(int boardSize, File boardList, File library, boolean solutions) throws IOException {
+        SudokuSolver solver = solutions ? SolverType.forSize(boardSize).create() : null;
+        byte[] solution = solutions ? new byte[boardSize*boardSize] : null;
+        try (PuzzleLibraryWriter writer = new PuzzleLibraryWriter(library, boardSize, solutions)) {
+            new BoardListParser(boardSize).parse(boardList, cells -> {
+                if (solutions && !solver.solveInto(boardSize, cells, solution))
+                    throw new IOException("Board " + writer.getCount() + " of " + boardList + " has no solution.");
+                writer.add(cells, solution);
+            });
+            writer.commit();
+            return writer.getCount();
+        }
+    }
+
+    /**
+     * Opens a library by mapping it into memory. Only the header is read.
+     *
+     * @param library   Library file.
+     * @return  Library view.
+     * @throws IOException  If the file cannot be read, is not a library or is truncated.
+     */
+    public static PuzzleLibrary open(File library) throws IOException {
+        try (FileChannel channel = FileChannel.open(library.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header) >= 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC)
+                throw new IOException(library + " is not a puzzle library.");
+            short version = header.getShort();
+            if (version != VERSION) throw new IOException("Unsupported puzzle library version " + version);
+            short flags = header.getShort();
+            int boardSize = header.getInt();
+            int subsquareSize = (int)Math.sqrt(boardSize);
+            if (boardSize < 1 || boardSize > 25 || subsquareSize*subsquareSize != boardSize) // Before any size math
+                throw new IOException(library + " has an invalid board size " + boardSize);
+            int cellBits = header.getInt();
+            int recordBytes = header.getInt();
+            long count = header.getLong();
+            if (cellBits != cellBits(boardSize) || recordBytes != recordBytes(boardSize, cellBits)
+                    || count < 0 || count > (channel.size() - HEADER_BYTES) / recordBytes) // No overflow on huge counts
+                throw new IOException(library + " is truncated or corrupt.");
+            int recordsPerSegment = Integer.MAX_VALUE / recordBytes;
+            int segmentCount = (int)((count + recordsPerSegment - 1) / recordsPerSegment);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long)i * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, count - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first*recordBytes,
+                        records*recordBytes);
+                segments[i].order(ByteOrder.BIG_ENDIAN);
+            }
+            return new PuzzleLibrary(boardSize, cellBits, recordBytes, count, flags, segments, recordsPerSegment);
+        }
+    }
+
+    /** Gets the side length of the library's boards. */
+    public int getBoardSize() { return this.boardSize; }
+
+    /** Gets the number of puzzles in the library. */
+    public long getCount() { return this.count; }
+
+    /** Checks whether the library stores the solution of every puzzle. */
+    public boolean hasSolutions() { return (this.flags & SOLUTIONS) != 0; }
+
+    /**
+     * Decodes a puzzle.
+     *
+     * @param index Position of the puzzle in the library.
+     * @param dest  Array of size*size elements receiving the cells indexed by row*size+column, 0 for empty.
+     */
+    public void getPuzzle(long index, byte[] dest) {
+        decode(index, dest, true);
+    }
+
+    /**
+     * Decodes the solution of a puzzle.
+     *
+     * @param index Position of the puzzle in the library.
+     * @param dest  Array of size*size elements receiving the solved cells.
+     * @throws IllegalStateException    If the library does not store solutions.
+     */
+    public void getSolution(long index, byte[] dest) {
+        if (!hasSolutions()) throw new IllegalStateException("Library does not store solutions.");
+        decode(index, dest, false);
+    }
+
+    /**
+     * Decodes a puzzle into a new playable board.
+     *
+     * @param index Position of the puzzle in the library.
+     * @return  New board holding the puzzle as fixed numbers.
+     */
+    public SudokuBoard getBoard(long index) {
+        byte[] cells = new byte[boardSize*boardSize];
+        getPuzzle(index, cells);
+        return SudokuGenerator.toBoard(boardSize, cells);
+    }
+
+    private void decode(long index, byte[] dest, boolean givensOnly) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("No puzzle " + index);
+        MappedByteBuffer segment = segments[(int)(index / recordsPerSegment)];
+        int offset = (int)(index % recordsPerSegment) * recordBytes; // Absolute reads, so views can be shared
+        decodeRecord(boardSize, cellBits, segment, offset, dest, givensOnly && hasSolutions());
+    }
+
+    /**
+     * Decodes the record starting at 'offset' of a buffer. When 'maskGivens' is set, cells outside the given mask
+     * are cleared, turning a stored solution into its puzzle.
+     */
+    static void decodeRecord(int boardSize, int cellBits, ByteBuffer buffer, int offset, byte[] dest,
+                             boolean maskGivens) {
+        int cellCount = boardSize*boardSize;
+        int maskBytes = (cellCount + 7) / 8;
+        int cellMask = (1 << cellBits) - 1;
+        int position = offset + maskBytes;
+        long bits = 0;
+        int available = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (available < cellBits) {
+                bits |= (long)(buffer.get(position++) & 0xff) << available;
+                available += 8;
+            }
+            dest[cell] = (byte)(bits & cellMask);
+            bits >>>= cellBits;
+            available -= cellBits;
+        }
+        if (!maskGivens) return;
+        for (int cell = 0; cell < cellCount; cell++) {
+            if ((buffer.get(offset + (cell >>> 3)) & (1 << (cell & 7))) == 0) dest[cell] = 0;
+        }
+    }
+
+    /**
+     * Encodes a record into 'record' from its start: the mask of the puzzle's givens, then 'cells' packed.
+     */
+    static void encodeRecord(int boardSize, int cellBits, byte[] puzzle, byte[] cells, byte[] record) {
+        int cellCount = boardSize*boardSize;
+        int maskBytes = (cellCount + 7) / 8;
+        java.util.Arrays.fill(record, (byte)0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            if (puzzle[cell] != 0) record[cell >>> 3] |= (byte)(1 << (cell & 7));
+        }
+        int position = maskBytes;
+        long bits = 0;
+        int pending = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            bits |= (long)cells[cell] << pending;
+            pending += cellBits;
+            while (pending >= 8) {
+                record[position++] = (byte)bits;
+                bits >>>= 8;
+                pending -= 8;
+            }
+        }
+        if (pending > 0) record[position] = (byte)bits;
+    }
+
+    /** Gets the number of bits storing one cell: enough for the numbers 0 to boardSize, at least 4. */
+    static int cellBits(int boardSize) {
+        return Math.max(4, 32 - Integer.numberOfLeadingZeros(boardSize));
+    }
+
+    /** Gets the length of one record. */
+    static int recordBytes(int boardSize, int cellBits) {
+        int cellCount = boardSize*boardSize;
+        return (cellCount + 7) / 8 + (cellCount*cellBits + 7) / 8;
+    }
+}
@@ -0,0 +1,74 @@
+/************************************************************************
+ * PuzzleLibraryWriter.java                                             *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the binary board sink, which streams puzzles into *
+ * a binary puzzle library and fills in the puzzle count of the header  *
+ * when the library is committed.                                       *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Board sink writing the format read by PuzzleLibrary. The library is written to 'name.part' and only appears under
+ * its name, with the final puzzle count in its header, once committed.
+ */
+public class PuzzleLibraryWriter extends FileBoardSink {
+
+    private final int cellBits;
+    private final boolean solutions;
+    private final byte[] record;
+
+    /**
+     * Starts a library file and writes a provisional header.
+     *
+     * @param library   Library file; replaced on commit if it exists.
+     * @param boardSize Side length of the boards.
+     * @param solutions True if every puzzle is added with its solution.
+     * @throws IOException  If the file cannot be written.
+     */
+    public PuzzleLibraryWriter(File library, int boardSize, boolean solutions) throws IOException {
+        super(library, boardSize, false, PuzzleLibrary.recordBytes(boardSize, PuzzleLibrary.cellBits(boardSize)));
+        this.cellBits = PuzzleLibrary.cellBits(boardSize);
+        this.solutions = solutions;
+        this.record = new byte[PuzzleLibrary.recordBytes(boardSize, cellBits)];
+        write(header());
+    }
+
+    /**
+     * Appends a puzzle.
+     *
+     * @param puzzle    Puzzle cells indexed by row*size+column, 0 for empty.
+     * @param solution  Solved cells of the puzzle; ignored, and may be null, unless the library stores solutions.
+     */
+    @Override
+    protected void encode(byte[] puzzle, byte[] solution, ByteBuffer dest) {
+        if (solutions && solution == null) throw new IllegalArgumentException("Library requires solutions.");
+        PuzzleLibrary.encodeRecord(boardSize, cellBits, puzzle, solutions ? solution : puzzle, record);
+        dest.put(record);
+    }
+
+    /** Writes the final puzzle count into the header. */
+    @Override
+    protected void finish() throws IOException {
+        writeAt(header(), 0);
+    }
+
+    private ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(PuzzleLibrary.HEADER_BYTES);
+        header.putInt(PuzzleLibrary.MAGIC);
+        header.putShort(PuzzleLibrary.VERSION);
+        header.putShort(solutions ? PuzzleLibrary.SOLUTIONS : 0);
+        header.putInt(boardSize);
+        header.putInt(cellBits);
+        header.putInt(record.length);
+        header.putLong(getCount());
+        header.putInt(0); // Reserved
+        header.flip();
+        return header;
+    }
+}
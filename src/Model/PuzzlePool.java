@@ -0,0 +1,194 @@
+/************************************************************************
+ * PuzzlePool.java                                                      *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a bounded pool of ready puzzles, kept per board   *
+ * size and difficulty, so a new game never waits for the generator or  *
+ * the web service. A background producer thread grades every puzzle   *
+ * its source produces, files it under its difficulty and refills a     *
+ * queue whenever taking from it drops it below the low-water mark.     *
+ ************************************************************************/
+
+package Model;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Thread safe puzzle pool. Taking a puzzle never blocks: it returns null when the requested queue is empty, and
+ * callers then request one, which is produced in the background and handed to a callback. At most 'capacity'
+ * puzzles are held per size and difficulty, as flat cell arrays.
+ */
+public class PuzzlePool {
+
+    /** Default number of puzzles held per board size and difficulty. */
+    public static final int DEFAULT_CAPACITY = 8;
+
+    /** Default queue length below which a refill is scheduled. */
+    public static final int DEFAULT_LOW_WATER = 3;
+
+    /** Puzzles produced per refill at most, so rare difficulties cannot keep the producer busy forever. */
+    private static final int ATTEMPTS_PER_REFILL = 64;
+
+    /** Queue key standing for puzzles of any difficulty. */
+    private static final int ANY = Difficulty.values().length;
+
+    private final PuzzleSource source;
+    private final int capacity;
+    private final int lowWater;
+    private final ConcurrentHashMap<Integer, ArrayBlockingQueue<byte[]>> queues = new ConcurrentHashMap<>();
+    private final Set<Integer> pendingRefills = ConcurrentHashMap.newKeySet();
+    private final ExecutorService producer;
+    private final DifficultyGrader grader = new DifficultyGrader(); // Used by the producer thread only
+
+    /**
+     * Creates a pool with the default capacity and low-water mark.
+     *
+     * @param source    Producer of new puzzles.
+     */
+    public PuzzlePool(PuzzleSource source) {
+        this(source, DEFAULT_CAPACITY, DEFAULT_LOW_WATER);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param source    Producer of new puzzles.
+     * @param capacity  Number of puzzles held per board size and difficulty.
+     * @param lowWater  Queue length below which a refill is scheduled.
+     */
+    public PuzzlePool(PuzzleSource source, int capacity, int lowWater) {
+        if (capacity < 1 || lowWater < 0 || lowWater > capacity)
+            throw new IllegalArgumentException("Invalid pool capacity or low-water mark.");
+        this.source = source;
+        this.capacity = capacity;
+        this.lowWater = lowWater;
+        this.producer = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "Puzzle pool producer");
+            thread.setDaemon(true); // Never keeps the application alive
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a puzzle without blocking and schedules a refill if the queue falls below the low-water mark.
+     *
+     * @param size          Side length of the board.
+     * @param difficulty    Requested difficulty, or null for any.
+     * @return  New board holding the puzzle as fixed numbers, or null if no puzzle is ready.
+     */
+    public SudokuBoard poll(int size, Difficulty difficulty) {
+        byte[] cells = null;
+        if (difficulty != null) cells = queue(size, difficulty.ordinal()).poll();
+        else {
+            for (int level = 0; level < ANY && cells == null; level++) cells = queue(size, level).poll();
+        }
+        if (available(size, difficulty) < lowWater) refill(size, difficulty);
+        return (cells == null) ? null : SudokuGenerator.toBoard(size, cells);
+    }
+
+    /**
+     * Requests a puzzle without blocking. The producer thread takes a ready puzzle or produces puzzles until one of
+     * the requested difficulty comes up, settling for any difficulty if none does within a refill's attempts, and
+     * hands it to the callback. Requests are served after the refills scheduled before them. Once the pool is shut
+     * down, the callback is called at once with a ready puzzle or null.
+     *
+     * @param size          Side length of the board.
+     * @param difficulty    Requested difficulty, or null for any.
+     * @param callback      Called on the producer thread with a new board holding the puzzle as fixed numbers, or
+     *                      with null if the source failed or threw; callers hand the board over to their own
+     *                      thread.
+     */
+    public void request(int size, Difficulty difficulty, Consumer<SudokuBoard> callback) {
+        if (producer.isShutdown()) { // Nothing will be produced, hand over what is ready
+            callback.accept(poll(size, difficulty));
+            return;
+        }
+        producer.execute(() -> {
+            SudokuBoard board = null;
+            try {
+                board = poll(size, difficulty);
+                for (int i = 0; board == null && i < ATTEMPTS_PER_REFILL && produce(size, difficulty); i++)
+                    board = poll(size, difficulty);
+                if (board == null && difficulty != null) board = poll(size, null);
+            }
+            catch (RuntimeException ex) { // The callback must run, or its caller waits forever
+                System.out.println(ex);
+            }
+            callback.accept(board);
+        });
+    }
+
+    /**
+     * Schedules a refill of the puzzles of a size and difficulty unless one is already scheduled.
+     *
+     * @param size          Side length of the board.
+     * @param difficulty    Requested difficulty, or null for any.
+     */
+    public void refill(int size, Difficulty difficulty) {
+        int key = key(size, difficulty == null ? ANY : difficulty.ordinal());
+        if (producer.isShutdown() || !pendingRefills.add(key)) return;
+        producer.execute(() -> {
+            try {
+                for (int i = 0; i < ATTEMPTS_PER_REFILL && available(size, difficulty) < capacity; i++) {
+                    if (!produce(size, difficulty)) break; // Source failed, try again on the next poll
+                }
+            }
+            finally {
+                pendingRefills.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Produces one puzzle on the producer thread and files it under its grade; puzzles that cannot be graded or whose
+     * queue is full are dropped. Returns false if the source failed or threw, so a failure never kills the producer.
+     */
+    private boolean produce(int size, Difficulty difficulty) {
+        try {
+            byte[] cells = source.next(size, difficulty);
+            if (cells == null) return false;
+            GradeResult grade = grader.grade(size, cells);
+            if (grade != null) queue(size, grade.getDifficulty().ordinal()).offer(cells);
+            return true;
+        }
+        catch (RuntimeException ex) {
+            System.out.println(ex);
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of ready puzzles.
+     *
+     * @param size          Side length of the board.
+     * @param difficulty    Requested difficulty, or null for any.
+     * @return  Number of puzzles that can be taken without producing new ones.
+     */
+    public int available(int size, Difficulty difficulty) {
+        if (difficulty != null) return queue(size, difficulty.ordinal()).size();
+        int available = 0;
+        for (int level = 0; level < ANY; level++) available += queue(size, level).size();
+        return Math.min(available, capacity);
+    }
+
+    /**
+     * Stops the producer thread. Ready puzzles can still be taken but no refills happen.
+     */
+    public void shutdown() {
+        producer.shutdownNow();
+    }
+
+    private ArrayBlockingQueue<byte[]> queue(int size, int level) {
+        return queues.computeIfAbsent(key(size, level), key -> new ArrayBlockingQueue<>(capacity));
+    }
+
+    private static int key(int size, int level) {
+        return size*(ANY+1) + level;
+    }
+}
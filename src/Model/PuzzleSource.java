@@ -0,0 +1,77 @@
+/************************************************************************
+ * PuzzleSource.java                                                    *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the interface of the puzzle producers feeding     *
+ * the PuzzlePool, along with the local generator and the web service   *
+ * producers.                                                           *
+ ************************************************************************/
+
+package Model;
+
+import java.util.Random;
+
+/**
+ * Producer of new puzzles. Sources are called from the pool's producer thread only and may block.
+ */
+public interface PuzzleSource {
+
+    /**
+     * Produces a new puzzle.
+     *
+     * @param size          Side length of the board.
+     * @param difficulty    Requested difficulty, or null for any; a hint, since the pool grades every puzzle itself.
+     * @return  Puzzle cells indexed by row*size+column, 0 for empty, or null if the source failed.
+     */
+    byte[] next(int size, Difficulty difficulty);
+
+    /**
+     * Gets a source generating unique-solution puzzles locally. Easier difficulties keep more clues; harder ones are
+     * reduced to minimal puzzles for boards up to 9x9. Clue removals are checked one at a time on the calling thread,
+     * so the background producer never takes more than one core from the game being played.
+     *
+     * @return  Local generator source.
+     */
+    static PuzzleSource local() {
+        return local(new Random().nextLong());
+    }
+
+    /**
+     * Gets a local generator source whose sequence of puzzles is determined by a seed.
+     *
+     * @param seed  Seed of the source's random stream.
+     * @return  Local generator source.
+     */
+    static PuzzleSource local(long seed) {
+        SudokuSolver solver = SolverType.getDefault().create();
+        Random rand = new Random(seed);
+        return (size, difficulty) -> {
+            int clues = SudokuGenerator.defaultClueCount(size);
+            if (difficulty == Difficulty.EASY) clues += size*size/20;
+            else if ((difficulty == Difficulty.HARD || difficulty == Difficulty.EXPERT) && size <= 9) clues = 0;
+            return SudokuGenerator.generateUniquePuzzle(size, clues, rand, solver);
+        };
+    }
+
+    /**
+     * Gets a source requesting puzzles from the sudoku web service, mapping difficulties to the service's levels 1
+     * to 3. NOTE: Requires internet connection
+     *
+     * @return  Web service source.
+     */
+    static PuzzleSource webService() {
+        return (size, difficulty) -> {
+            int level = (difficulty == null) ? 2 : Math.min(difficulty.ordinal() + 1, 3);
+            try {
+                SudokuBoard board = SudokuBoard.generateRandomBoardWithWebService(size, level);
+                byte[] cells = new byte[size*size];
+                board.copyCells(cells);
+                return cells;
+            }
+            catch (RuntimeException ex) { // Failed request or malformed response
+                System.out.println(ex);
+                return null;
+            }
+        };
+    }
+}
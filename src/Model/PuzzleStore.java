@@ -0,0 +1,184 @@
+/************************************************************************
+ * PuzzleStore.java                                                     *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the in-memory store of a board list. Puzzles are  *
+ * kept packed, back to back, in a single byte array using the record   *
+ * layout of binary puzzle libraries, and a playable SudokuBoard is     *
+ * only created for the puzzle a new game starts with.                  *
+ ************************************************************************/
+
+package Model;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable flyweight puzzle store. A 9x9 puzzle takes 52 bytes, against a few kilobytes as a SudokuBoard with its
+ * cells, candidate masks, occupancy arrays and history. Reading is thread safe once all puzzles have been added.
+ */
+public class PuzzleStore {
+
+    private final int boardSize;
+    private final int cellBits;
+    private final int recordBytes;
+    private final byte[] record; // Encoding buffer of add
+    private byte[] records;
+    private ByteBuffer view; // Wraps 'records', read with absolute gets only
+    private int count = 0;
+
+    /**
+     * Creates an empty store.
+     *
+     * @param boardSize Side length of the stored boards.
+     */
+    public PuzzleStore(int boardSize) {
+        this(boardSize, 16);
+    }
+
+    /**
+     * Creates an empty store with room for a number of puzzles before it grows.
+     *
+     * @param boardSize Side length of the stored boards.
+     * @param capacity  Number of puzzles held without growing.
+     */
+    public PuzzleStore(int boardSize, int capacity) {
+        if (boardSize < 1 || boardSize > 31) throw new IllegalArgumentException("Unsupported board size.");
+        this.boardSize = boardSize;
+        this.cellBits = PuzzleLibrary.cellBits(boardSize);
+        this.recordBytes = PuzzleLibrary.recordBytes(boardSize, cellBits);
+        this.record = new byte[recordBytes];
+        this.records = new byte[Math.max(1, capacity)*recordBytes];
+        this.view = ByteBuffer.wrap(records);
+    }
+
+    /**
+     * Reads a board list file, in either format of BoardListParser, straight into a store without creating a board
+     * per puzzle. Every board is checked for conflicting numbers.
+     *
+     * @param boardFile File to be read.
+     * @param boardSize Side length of the boards in the file.
+     * @return  Store holding the boards in file order.
+     * @throws IOException  If the file cannot be read or is malformed.
+     */
+    public static PuzzleStore readBoardListFile(File boardFile, int boardSize) throws IOException {
+        return readBoardListFile(boardFile, boardSize, true);
+    }
+
+    /**
+     * Reads a board list file straight into a store.
+     *
+     * @param boardFile File to be read.
+     * @param boardSize Side length of the boards in the file.
+     * @param validate  True to check every board for conflicting numbers; false for libraries known to be valid.
+     * @return  Store holding the boards in file order.
+     * @throws IOException  If the file cannot be read or is malformed.
+     */
+    public static PuzzleStore readBoardListFile(File boardFile, int boardSize, boolean validate) throws IOException {
+        PuzzleStore store = new PuzzleStore(boardSize, (int)Math.min(Integer.MAX_VALUE / 2,
+                boardFile.length() / bytesPerBoard(boardFile, boardSize) + 1));
+        BoardListParser parser = new BoardListParser(boardSize);
+        parser.setValidate(validate);
+        parser.parse(boardFile, store::add);
+        store.trimToSize();
+        return store;
+    }
+
+    /**
+     * Estimates the bytes a board takes in a board list file from its first board line: that line in the one-line
+     * format, 'size' lines like it in the multi-line format. The store is trimmed after reading, so an estimate that
+     * is off only costs a copy.
+     */
+    private static long bytesPerBoard(File boardFile, int boardSize) throws IOException {
+        int cells = boardSize*boardSize;
+        try (BufferedReader reader = new BufferedReader(new FileReader(boardFile))) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                if (line.split("[\\s,]", 2)[0].length() == cells) return line.length() + 1; // Rating included
+                return (long)(line.length() + 1) * boardSize;
+            }
+        }
+        return cells + 1;
+    }
+
+    /**
+     * Releases the room reserved for puzzles beyond the ones added.
+     */
+    public void trimToSize() {
+        if (records.length == count*recordBytes) return;
+        records = Arrays.copyOf(records, count*recordBytes);
+        view = ByteBuffer.wrap(records);
+    }
+
+    /**
+     * Copies every puzzle of a binary library into a store.
+     *
+     * @param library   Library to copy.
+     * @return  Store holding the library's puzzles in library order.
+     */
+    public static PuzzleStore fromLibrary(PuzzleLibrary library) {
+        if (library.getCount() > Integer.MAX_VALUE / 2) throw new IllegalArgumentException("Library too large.");
+        int count = (int)library.getCount();
+        PuzzleStore store = new PuzzleStore(library.getBoardSize(), count);
+        byte[] cells = new byte[library.getBoardSize()*library.getBoardSize()];
+        for (int i = 0; i < count; i++) {
+            library.getPuzzle(i, cells);
+            store.add(cells);
+        }
+        return store;
+    }
+
+    /**
+     * Appends a puzzle.
+     *
+     * @param cells Puzzle cells indexed by row*size+column, 0 for empty.
+     */
+    public void add(byte[] cells) {
+        if ((count + 1) * (long)recordBytes > records.length) {
+            long capacity = Math.max(2L*records.length, (count + 1) * (long)recordBytes);
+            if (capacity > Integer.MAX_VALUE - 8) throw new IllegalStateException("Puzzle store is full.");
+            records = Arrays.copyOf(records, (int)capacity);
+            view = ByteBuffer.wrap(records);
+        }
+        PuzzleLibrary.encodeRecord(boardSize, cellBits, cells, cells, record);
+        System.arraycopy(record, 0, records, count*recordBytes, recordBytes);
+        count++;
+    }
+
+    /** Gets the side length of the stored boards. */
+    public int getBoardSize() { return this.boardSize; }
+
+    /** Gets the number of stored puzzles. */
+    public int getCount() { return this.count; }
+
+    /** Checks whether the store holds no puzzle. */
+    public boolean isEmpty() { return this.count == 0; }
+
+    /**
+     * Decodes a puzzle.
+     *
+     * @param index Position of the puzzle in the store.
+     * @param dest  Array of size*size elements receiving the cells indexed by row*size+column, 0 for empty.
+     */
+    public void getPuzzle(int index, byte[] dest) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("No puzzle " + index);
+        PuzzleLibrary.decodeRecord(boardSize, cellBits, view, index*recordBytes, dest, false);
+    }
+
+    /**
+     * Decodes a puzzle into a new playable board. Every call returns a different board.
+     *
+     * @param index Position of the puzzle in the store.
+     * @return  New board holding the puzzle as fixed numbers.
+     */
+    public SudokuBoard getBoard(int index) {
+        byte[] cells = new byte[boardSize*boardSize];
+        getPuzzle(index, cells);
+        return SudokuGenerator.toBoard(boardSize, cells);
+    }
+}
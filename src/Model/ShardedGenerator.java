@@ -0,0 +1,219 @@
+/************************************************************************
+ * ShardedGenerator.java                                                *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides multi-process board library generation. Worker    *
+ * JVMs, on one machine or several, each generate a shard file from a   *
+ * disjoint share of the job streams of a common seed. A merge step     *
+ * combines the shard files, drops puzzles equivalent to one already    *
+ * merged and writes the library file together with its difficulty      *
+ * index. Processes coordinate only through files in the shard folder.  *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Sharded generator. Shard k of n writes 'shard_k.txt' in the shard folder and checkpoints to 'shard_k.ckpt', so a
+ * preempted worker started again with the same arguments resumes. A worker creates 'shard_k.done' once its shard is
+ * complete, and the merge step refuses to run while a shard lacks it. On several machines, run one worker per
+ * shard with the same seed and shard count, copy the shard folders' files into one folder and merge there.
+ */
+public class ShardedGenerator {
+
+    /**
+     * Runs a worker, launches local workers and merges their shards, or merges shards.
+     * Usage: ShardedGenerator worker boardSize count shardFolder shard shards seed [threads]
+     *        ShardedGenerator launch boardSize count shardFolder shards seed outputFile [threadsPerWorker]
+     *        ShardedGenerator merge boardSize shardFolder outputFile
+     * @param args  Mode followed by its arguments.
+     */
+    public static void main(String[] args) {
+        try {
+            if (args.length >= 7 && args[0].equals("worker")) {
+                int threads = (args.length > 7) ? Integer.parseInt(args[7]) : 1;
+                int written = runWorker(Integer.parseInt(args[1]), Integer.parseInt(args[2]), new File(args[3]),
+                        Integer.parseInt(args[4]), Integer.parseInt(args[5]), Long.parseLong(args[6]), threads);
+                System.out.printf("Shard %s wrote %d boards%n", args[4], written);
+                return;
+            }
+            if (args.length >= 7 && args[0].equals("launch")) {
+                int threads = (args.length > 7) ? Integer.parseInt(args[7]) : 1;
+                int[] counts = launch(Integer.parseInt(args[1]), Integer.parseInt(args[2]), new File(args[3]),
+                        Integer.parseInt(args[4]), Long.parseLong(args[5]), new File(args[6]), threads);
+                System.out.printf("Merged %d of %d boards into %s%n", counts[1], counts[0], args[6]);
+                return;
+            }
+            if (args.length >= 4 && args[0].equals("merge")) {
+                int[] counts = merge(Integer.parseInt(args[1]), new File(args[2]), new File(args[3]));
+                System.out.printf("Merged %d of %d boards into %s%n", counts[1], counts[0], args[3]);
+                return;
+            }
+        }
+        catch (IOException | InterruptedException ex) {
+            System.out.println(ex);
+            return;
+        }
+        System.out.println("Usage: ShardedGenerator worker boardSize count shardFolder shard shards seed [threads]");
+        System.out.println("       ShardedGenerator launch boardSize count shardFolder shards seed outputFile "
+                + "[threadsPerWorker]");
+        System.out.println("       ShardedGenerator merge boardSize shardFolder outputFile");
+    }
+
+    /**
+     * Generates one shard, resuming from its checkpoint if it has one.
+     * @param boardSize     Side length of the boards.
+     * @param count         Number of boards of the whole library; the shard writes its share of them.
+     * @param shardFolder   Folder of the shard and checkpoint files; created if it does not exist.
+     * @param shard         Index of the shard, from 0 to shards-1.
+     * @param shards        Number of shards.
+     * @param seed          Seed common to every shard.
+     * @param threads       Number of worker threads of this process.
+     * @return  Number of boards in the shard.
+     * @throws IOException  If a shard file cannot be read or written.
+     */
+    public static int runWorker(int boardSize, int count, File shardFolder, int shard, int shards, long seed,
+                                int threads) throws IOException {
+        if (!shardFolder.isDirectory() && !shardFolder.mkdirs())
+            throw new IOException("Cannot create " + shardFolder);
+        BatchGenerator generator = new BatchGenerator(boardSize, threads);
+        generator.setShard(shard, shards);
+        generator.setSeed(seed);
+        int share = shareOf(count, shard, shards);
+        int written = generator.generate(shardFile(shardFolder, shard), share, checkpointFile(shardFolder, shard));
+        if (written == share) doneFile(shardFolder, shard).createNewFile();
+        return written;
+    }
+
+    /**
+     * Starts one worker JVM per shard on this machine, waits for all of them and merges their shards. Workers run
+     * with the class path of this JVM and log to 'shard_k.log' in the shard folder.
+     * @param boardSize     Side length of the boards.
+     * @param count         Number of boards to generate before merging.
+     * @param shardFolder   Folder of the shard files.
+     * @param shards        Number of worker processes.
+     * @param seed          Seed common to every shard.
+     * @param output        Library file to write.
+     * @param threads       Number of worker threads per process.
+     * @return  Number of boards read from the shards and number of boards merged.
+     * @throws IOException  If a worker fails or a file cannot be read or written.
+     * @throws InterruptedException If interrupted while waiting for the workers, which are then stopped.
+     */
+    public static int[] launch(int boardSize, int count, File shardFolder, int shards, long seed, File output,
+                               int threads) throws IOException, InterruptedException {
+        if (!shardFolder.isDirectory() && !shardFolder.mkdirs())
+            throw new IOException("Cannot create " + shardFolder);
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<Process> workers = new ArrayList<>();
+        try {
+            for (int shard = 0; shard < shards; shard++) {
+                ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        ShardedGenerator.class.getName(), "worker", String.valueOf(boardSize), String.valueOf(count),
+                        shardFolder.getPath(), String.valueOf(shard), String.valueOf(shards), String.valueOf(seed),
+                        String.valueOf(threads));
+                builder.redirectErrorStream(true);
+                builder.redirectOutput(new File(shardFolder, "shard_" + shard + ".log"));
+                workers.add(builder.start());
+            }
+            for (int shard = 0; shard < shards; shard++) {
+                if (workers.get(shard).waitFor() != 0) throw new IOException("Worker of shard " + shard + " failed.");
+            }
+        }
+        finally {
+            for (Process worker: workers) worker.destroy(); // No-op for finished workers
+        }
+        return merge(boardSize, shardFolder, output);
+    }
+
+    /**
+     * Merges every shard of a shard folder into a library file, keeping the first board of every equivalence
+     * class, and writes its difficulty index next to it. Shards are interleaved board by board, so a library cut
+     * short still mixes every shard's boards. Shards are streamed side by side and only the fingerprints of the
+     * merged boards are kept, so the merge size is not bound by the heap; the index is graded from the written file.
+     * Equivalence is that of Canonicalizer, which for boards above 9x9 is relabeling only, and since only
+     * fingerprints are compared a board colliding with a merged one is dropped.
+     * @param boardSize     Side length of the boards.
+     * @param shardFolder   Folder of the shard and checkpoint files.
+     * @param output        Library file to write; overwritten if it exists. Its index goes to the same name with
+     *                      '_index' before the extension.
+     * @return  Number of boards read from the shards and number of boards merged.
+     * @throws IOException  If a shard is incomplete or missing, or a file cannot be read or written.
+     */
+    public static int[] merge(int boardSize, File shardFolder, File output) throws IOException {
+        List<File> shardFiles = new ArrayList<>();
+        for (int shard = 0; ; shard++) {
+            File shardFile = shardFile(shardFolder, shard);
+            if (!shardFile.exists()) break;
+            GenerationCheckpoint checkpoint = GenerationCheckpoint.read(checkpointFile(shardFolder, shard));
+            if (checkpoint == null || !doneFile(shardFolder, shard).exists())
+                throw new IOException("Shard " + shard + " is incomplete.");
+            if (checkpoint.boardSize != boardSize) throw new IOException("Shard " + shard + " has another board size.");
+            if (shard == 0 && checkpoint.shards != countShards(shardFolder))
+                throw new IOException("Expected " + checkpoint.shards + " shards in " + shardFolder);
+            shardFiles.add(shardFile);
+        }
+        if (shardFiles.isEmpty()) throw new IOException("No shards in " + shardFolder);
+        Canonicalizer canonicalizer = new Canonicalizer(boardSize);
+        HashSet<Long> fingerprints = new HashSet<>();
+        BoardListParser parser = new BoardListParser(boardSize);
+        List<BoardListParser.Cursor> shards = new ArrayList<>();
+        int read = 0;
+        try (TextBoardSink sink = new TextBoardSink(output, boardSize, false)) {
+            try {
+                for (File shardFile: shardFiles) shards.add(parser.open(shardFile));
+                boolean any = true;
+                while (any) {
+                    any = false;
+                    for (BoardListParser.Cursor shard: shards) {
+                        if (!shard.next()) continue;
+                        any = true;
+                        read++;
+                        if (fingerprints.add(canonicalizer.fingerprint(shard.getCells())))
+                            sink.add(shard.getCells(), null);
+                    }
+                }
+            }
+            finally {
+                for (BoardListParser.Cursor shard: shards) shard.close();
+            }
+            sink.commit();
+        }
+        DifficultyIndex.build(boardSize, output).write(indexFile(output));
+        return new int[] {read, fingerprints.size()};
+    }
+
+    /** Gets the number of boards shard 'shard' of 'shards' writes out of 'count'. */
+    static int shareOf(int count, int shard, int shards) {
+        return count/shards + ((shard < count % shards) ? 1 : 0);
+    }
+
+    /** Gets the index file of a library file: the same name with '_index' before the extension. */
+    static File indexFile(File library) {
+        String name = library.getName();
+        int dot = name.lastIndexOf('.');
+        String indexName = (dot < 0) ? name + "_index" : name.substring(0, dot) + "_index" + name.substring(dot);
+        return new File(library.getAbsoluteFile().getParentFile(), indexName);
+    }
+
+    private static File shardFile(File shardFolder, int shard) {
+        return new File(shardFolder, "shard_" + shard + ".txt");
+    }
+
+    private static File checkpointFile(File shardFolder, int shard) {
+        return new File(shardFolder, "shard_" + shard + ".ckpt");
+    }
+
+    private static File doneFile(File shardFolder, int shard) {
+        return new File(shardFolder, "shard_" + shard + ".done");
+    }
+
+    private static int countShards(File shardFolder) {
+        String[] names = shardFolder.list((folder, name) -> name.matches("shard_\\d+\\.txt"));
+        return (names == null) ? 0 : names.length;
+    }
+}
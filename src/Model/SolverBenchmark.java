@@ -0,0 +1,70 @@
+/************************************************************************
+ * SolverBenchmark.java                                                 *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides a standalone program that runs every solver       *
+ * engine over the bundled puzzle lists and prints a comparison report  *
+ * of solved puzzles, search nodes and solve times.                     *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.util.ArrayList;
+
+public class SolverBenchmark {
+
+    /**
+     * Runs the benchmark. Arguments name the solver engines to compare (see SolverType); all engines are compared
+     * when none are given.
+     * @param args  Optional solver engine names.
+     */
+    public static void main(String[] args) {
+        SolverType[] types = new SolverType[args.length];
+        for (int i = 0; i < args.length; i++) types[i] = SolverType.valueOf(args[i]);
+        if (types.length == 0) types = SolverType.values();
+
+        System.out.printf("%-6s %-24s %8s %12s %10s %10s %12s %10s%n",
+                "Size", "Solver", "Solved", "Nodes", "Mean", "Max", "Total ms", "Worst ms");
+        for (int size: new int[] {4, 9}) {
+            ArrayList<byte[]> puzzles = readPuzzles(new File("src/Assets/boardList_" + size + ".txt"), size);
+            for (SolverType type: types) report(size, type, puzzles);
+        }
+    }
+
+    /**
+     * Solves every puzzle once to warm up the engine, then again while collecting statistics.
+     */
+    private static void report(int size, SolverType type, ArrayList<byte[]> puzzles) {
+        SudokuSolver solver = type.create();
+        for (byte[] puzzle: puzzles) solver.solve(size, puzzle);
+        int solved = 0;
+        long nodes = 0, maxNodes = 0, total = 0, worst = 0;
+        for (byte[] puzzle: puzzles) {
+            SolverResult result = solver.solve(size, puzzle);
+            if (result.isSolved()) solved++;
+            nodes += result.getNodes();
+            maxNodes = Math.max(maxNodes, result.getNodes());
+            total += result.getElapsedNanos();
+            worst = Math.max(worst, result.getElapsedNanos());
+        }
+        System.out.printf("%-6s %-24s %8s %12d %10.1f %10d %12.2f %10.3f%n", size + "x" + size, type.getDisplayName(),
+                solved + "/" + puzzles.size(), nodes, (double)nodes / puzzles.size(), maxNodes, total / 1e6, worst / 1e6);
+    }
+
+    /**
+     * Reads the givens of every board in a board list file into flat arrays.
+     */
+    private static ArrayList<byte[]> readPuzzles(File boardFile, int size) {
+        ArrayList<byte[]> puzzles = new ArrayList<>();
+        for (SudokuBoard board: SudokuBoard.readBoardListFile(boardFile, size)) {
+            byte[] cells = new byte[size*size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++)
+                    cells[i*size+j] = (byte)board.getCell(i,j);
+            }
+            puzzles.add(cells);
+        }
+        return puzzles;
+    }
+}
@@ -0,0 +1,43 @@
+/************************************************************************
+ * SolverResult.java                                                    *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the value returned by SudokuSolver engines: the   *
+ * solution found, if any, along with statistics about the search.     *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Immutable outcome of a SudokuSolver run.
+ */
+public final class SolverResult {
+
+    private final byte[] solution; // Solved cells indexed by row*size+column, null if no solution was found
+    private final long nodes; // Search nodes (branch points) visited
+    private final long elapsedNanos;
+
+    public SolverResult(byte[] solution, long nodes, long elapsedNanos) {
+        this.solution = solution;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Gets whether the solver found a solution. */
+    public boolean isSolved() { return this.solution != null; }
+
+    /** Gets the solved cells indexed by row*size+column, or null if the puzzle has no solution. */
+    public byte[] getSolution() { return this.solution; }
+
+    /** Gets the number of search nodes the solver visited. */
+    public long getNodes() { return this.nodes; }
+
+    /** Gets the wall-clock time the search took in nanoseconds. */
+    public long getElapsedNanos() { return this.elapsedNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("%s in %.3f ms (%d nodes)", isSolved() ? "Solved" : "No solution",
+                elapsedNanos / 1e6, nodes);
+    }
+}
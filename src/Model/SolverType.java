@@ -0,0 +1,61 @@
+/************************************************************************
+ * SolverType.java                                                      *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file enumerates the available SudokuSolver engines so that the  *
+ * game board, the user interface and the board generator can select    *
+ * one by name.                                                         *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Available solver engines.
+ */
+public enum SolverType {
+    BACKTRACKING("Backtracking"),
+    DANCING_LINKS("Dancing Links"),
+    CONSTRAINT_PROPAGATION("Constraint Propagation"),
+    PARALLEL("Parallel Constraint Propagation");
+
+    private final String displayName;
+
+    SolverType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Creates a new instance of this solver engine.
+     *
+     * @return  New solver; solvers are not thread safe so each thread should create its own.
+     */
+    public SudokuSolver create() {
+        switch (this) {
+            case BACKTRACKING:
+                return new BacktrackingSolver();
+            case CONSTRAINT_PROPAGATION:
+                return new ConstraintPropagationSolver();
+            case PARALLEL:
+                return new ParallelSolver();
+            default:
+                return new DancingLinksSolver();
+        }
+    }
+
+    /** Gets the solver name shown to users. */
+    public String getDisplayName() { return this.displayName; }
+
+    /** Gets the solver used when none is selected. */
+    public static SolverType getDefault() { return CONSTRAINT_PROPAGATION; }
+
+    /**
+     * Gets the solver best suited to boards of the given size: the parallel engine for 16x16 boards and larger, and
+     * the single-threaded constraint propagating engine otherwise.
+     *
+     * @param size  Side length of the board.
+     * @return  Recommended solver engine.
+     */
+    public static SolverType forSize(int size) {
+        return (size >= 16) ? PARALLEL : getDefault();
+    }
+}
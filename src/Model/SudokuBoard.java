@@ -16,10 +16,11 @@ import org.json.JSONObject;
 import org.json.JSONTokener;
 
 import java.io.File;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.InputMismatchException;
-import java.util.LinkedList;
 import java.util.Stack;
 
 /**
@@ -28,20 +29,88 @@ import java.util.Stack;
  */
 public class SudokuBoard extends Board {
 
+    private static final int SNAPSHOT_MAGIC = 0x53444b47; // "SDKG"
+    private static final short SNAPSHOT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_BYTES = 16;
+
     private final int SIZE; // Side length of board
     private final int SUBSQUARE_SIZE;
-    private ArrayList<Cell> fixedNumbers = new ArrayList<>(); // Stores the unalterable cell locations received from json web service.
     private int numbersAdded; // Stores the total number of numbers entered into the board; game finishes when numbersAdded = (board length)^2
-    private LinkedList<Integer>[][] possibleNumbers = null;
+    private int[] possibleNumbers; // Candidate bitmask of each cell (see Candidates), indexed by row*SIZE+column; kept current by setCell
+    private long possibleNumbersVersion; // Incremented whenever any candidate mask changes
+    private int[] rowOccupancy; // Masks of the numbers present in each row, column and subsquare; kept current by setCell
+    private int[] columnOccupancy;
+    private int[] subsquareOccupancy;
     private Stack<Move> undoList = new Stack<>();
     private Stack<Move> redoList = new Stack<>();
     private int[] numberOccurrences;
+    private SudokuSolver solver; // Engine used by solveBoard, solve and countSolutions
+    private byte[] solveBuffer; // Scratch copy of the cells handed to the solver by solve/trySolve
 
     public SudokuBoard(int boardSize) {
         super(isPerfectSquare(boardSize));
         this.SIZE = boardSize;
         this.SUBSQUARE_SIZE = (int)Math.sqrt(SIZE);
         this.numberOccurrences = new int[SIZE+1];
+        this.rowOccupancy = new int[SIZE];
+        this.columnOccupancy = new int[SIZE];
+        this.subsquareOccupancy = new int[SIZE];
+        this.solver = SolverType.forSize(SIZE).create();
+        this.possibleNumbers = new int[SIZE*SIZE];
+        java.util.Arrays.fill(this.possibleNumbers, Candidates.full(SIZE)); // Every number is possible on an empty board
+    }
+
+    /**
+     * Creates a board holding a puzzle as fixed numbers through a trusted bulk load: the cells are copied at once and
+     * the occupancy masks, number occurrences and candidates are computed in a single pass, instead of inserting and
+     * validating every number. The puzzle must not have conflicting numbers; callers that cannot vouch for it check
+     * it first with Candidates.occupancy or validateBoard.
+     *
+     * @param boardSize Side length of the board.
+     * @param cells     Puzzle cells indexed by row*size+column, 0 for empty. Not kept.
+     * @return  New board holding the puzzle.
+     */
+    public static SudokuBoard fromCells(int boardSize, byte[] cells) {
+        SudokuBoard board = new SudokuBoard(boardSize);
+        board.loadCells(cells);
+        Candidates.occupancy(boardSize, cells, board.rowOccupancy, board.columnOccupancy, board.subsquareOccupancy);
+        int full = Candidates.full(boardSize);
+        for (int i = 0; i < boardSize; i++) {
+            for (int j = 0; j < boardSize; j++) {
+                int number = cells[i*boardSize+j];
+                if (number != 0) {
+                    board.numberOccurrences[number]++;
+                    board.numbersAdded++;
+                    board.possibleNumbers[i*boardSize+j] = 0; // Fixed cells have no candidates
+                }
+                else board.possibleNumbers[i*boardSize+j] = full & ~(board.rowOccupancy[i]
+                        | board.columnOccupancy[j] | board.subsquareOccupancy[board.subsquareIndex(i,j)]);
+            }
+        }
+        board.possibleNumbersVersion++;
+        return board;
+    }
+
+    /**
+     * Creates a board holding a game through the same trusted bulk load as fromCells, fixing only the flagged cells so
+     * numbers entered by the user stay alterable. The cells must not have conflicting numbers.
+     *
+     * @param boardSize Side length of the board.
+     * @param cells     Cells indexed by row*size+column, 0 for empty. Not kept.
+     * @param fixed     Fixed cell bitset in the layout of copyFixed; only non-empty cells may be flagged. Not kept.
+     * @return  New board holding the game, without undo or redo history.
+     */
+    static SudokuBoard fromCells(int boardSize, byte[] cells, long[] fixed) {
+        SudokuBoard board = new SudokuBoard(boardSize);
+        Candidates.occupancy(boardSize, cells, board.rowOccupancy, board.columnOccupancy, board.subsquareOccupancy);
+        board.loadCells(cells, fixed);
+        for (byte number: cells) {
+            if (number == 0) continue;
+            board.numberOccurrences[number]++;
+            board.numbersAdded++;
+        }
+        board.generatePossibleNumberGrid();
+        return board;
     }
 
     /**
@@ -132,8 +201,7 @@ public class SudokuBoard extends Board {
      * @return      True if the number already exists in the subsquare, false otherwise.
      */
     private boolean isInSubsquare(int number, int row, int column) {
-        int size = this.getSize();
-        int squareSize = (int)Math.sqrt(size);
+        int squareSize = SUBSQUARE_SIZE;
         for (int i = 0; i < squareSize; i++) {
             for (int j = 0; j < squareSize; j++) {
                 int rowIndex = squareSize * (row/squareSize) + (i%squareSize);
@@ -147,18 +215,78 @@ public class SudokuBoard extends Board {
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
+     * Determines if a number may be placed at the given location by checking the row, column and subsquare
+     * occupancy masks in constant time. The number currently in the cell is ignored since it would be replaced.
      *
-     * @param number
-     * @param row
-     * @param column
-     * @return
+     * @param number    Number to be inserted.
+     * @param row       Row insertion index.
+     * @param column    Column insertion index.
+     * @return  True if the number is in range, the cell is alterable and the number conflicts with none of its peers,
+     * false otherwise.
      */
     private boolean isValidInsert(int number, int row, int column) {
-        if (!canAlterNumber(row,column) || isInColumn(number,row,column) || isInRow(number,row,column) || isInSubsquare(number,row,column))
-            return false;
-        else
-            return true;
+        if (number < 1 || number > SIZE || !canAlterNumber(row,column)) return false;
+        return (usedNumbers(row,column) & Candidates.bit(number)) == 0;
+    }
+
+    /**
+     * Gets the mask of numbers present in the peers of a cell (its row, column and subsquare, excluding itself).
+     *
+     * @param row       Row index of location.
+     * @param column    Column index of location.
+     * @return  Mask of the numbers that conflict with the given location.
+     */
+    private int usedNumbers(int row, int column) {
+        int used = rowOccupancy[row] | columnOccupancy[column] | subsquareOccupancy[subsquareIndex(row,column)];
+        int number = this.getCell(row,column);
+        if (number != 0) used &= ~Candidates.bit(number); // A cell does not conflict with its own number
+        return used;
+    }
+
+    /**
+     * Sets a cell and incrementally updates the row, column and subsquare occupancy masks and the candidates of the
+     * cell's peers. Every write to the board, including inserts, removals, undo/redo and clearing, passes through
+     * this method.
+     *
+     * @param number    Number being set, or 0 to empty the cell.
+     * @param row       Row index of location.
+     * @param col       Column index of location.
+     */
+    @Override
+    public void setCell(int number, int row, int col) {
+        int box = subsquareIndex(row,col);
+        int previous = this.getCell(row,col);
+        if (previous != 0) {
+            int clear = ~Candidates.bit(previous);
+            rowOccupancy[row] &= clear;
+            columnOccupancy[col] &= clear;
+            subsquareOccupancy[box] &= clear;
+        }
+        super.setCell(number, row, col);
+        if (number != 0) {
+            int bit = Candidates.bit(number);
+            rowOccupancy[row] |= bit;
+            columnOccupancy[col] |= bit;
+            subsquareOccupancy[box] |= bit;
+        }
+        if (previous == number) return;
+        if (previous != 0) addToPossibleNumberGrid(previous, row, col);
+        if (number != 0) removeFromPossibleNumberGrid(number, row, col);
+        possibleNumbersVersion++;
+    }
+
+    /**
+     * Flags or unflags a cell as fixed, emptying its candidates while it is fixed.
+     *
+     * @param fixed Whether the cell should be fixed.
+     * @param row   Row index of location.
+     * @param col   Column index of location.
+     */
+    @Override
+    public void setFixed(boolean fixed, int row, int col) {
+        super.setFixed(fixed, row, col);
+        possibleNumbers[row*SIZE+col] = fixed ? 0 : Candidates.full(SIZE) & ~usedNumbers(row,col);
+        possibleNumbersVersion++;
     }
 
     /**
@@ -202,7 +330,7 @@ public class SudokuBoard extends Board {
         if (!isValidInsert(number,row,column)) return false;
         this.setCell(number,row,column);
         this.numberOccurrences[number]++;
-        fixedNumbers.add(new Cell(row,column));
+        this.setFixed(true,row,column);
         this.numbersAdded++;
         return true;
     }
@@ -325,14 +453,15 @@ public class SudokuBoard extends Board {
             int y = cell.getInt("y");
             int number = cell.getInt("value");
             SB.insertNumber(number,x,y);
-            SB.fixedNumbers.add(new Cell(x,y));
+            SB.setFixed(true,x,y);
         }
         return SB;
     }
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
+     * Clears every number entered by the user and fills the board with the solution of its fixed numbers, found by
+     * the board's selected solver engine.
      *
      * @return Returns true if the board is solvable and inserts solved board numbers, and false if the board is not solvable.
      */
@@ -342,39 +471,17 @@ public class SudokuBoard extends Board {
             System.out.println("Solver Error(1): Board is not solvable.");
             return false;
         }
-        int numCells = this.getSize()*this.getSize();
         this.clearBoard();
-        if (possibleNumbers == null) possibleNumbers = generatePossibleNumberGrid();
-        Stack<Cell> cellAltered = new Stack<>();
-        Stack<Integer> startNumStack = new Stack<>();
-        int startIndex = 0;
-        startNumStack.push(startIndex);
-        for (int i = 0; i < this.getSize() && this.numbersAdded < numCells; i++) {
-            for (int j = 0; j < this.getSize() && this.numbersAdded < numCells; j++) {
-                if (!this.canAlterNumber(i,j)) continue;
-                boolean success = false;
-                LinkedList<Integer> possibleNumbersCell = possibleNumbers[i][j];
-                for (int insert = startIndex; insert < possibleNumbersCell.size(); insert++) {
-                    if (this.insertNumber(possibleNumbersCell.get(insert),i,j)) {
-                        cellAltered.push(new Cell(i,j));
-                        startNumStack.push(insert);
-                        startIndex = 0;
-                        success = true;
-                        break;
-                    }
-                }
-                if (success) continue;
-                if (cellAltered.isEmpty()) {
-                    System.out.println("Solver Error(2): Board is not solvable.");
-                    return false;
-                }
-                Cell top = cellAltered.pop();
-                i = top.row;
-                j = top.column;
-                startIndex = startNumStack.pop()+1; // Start at next number
-                this.removeNumber(i,j);
-                j--;
-            }
+        int size = this.getSize();
+        SolverResult result = this.solver.solve(size, givenCells());
+        if (!result.isSolved()) {
+            System.out.println("Solver Error(2): Board is not solvable.");
+            return false;
+        }
+        byte[] solution = result.getSolution();
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++)
+                if (this.canAlterNumber(i,j)) this.insertNumber(solution[i*size+j],i,j);
         }
         System.out.println("Puzzle Solved");
         return true;
@@ -382,102 +489,227 @@ public class SudokuBoard extends Board {
 
     /**
      * @author Marco Soto
-     * Determines if the given location belongs to the set of unalterable cells by searching the locations of
-     * unalterable cells in the sudoku board stored in 'fixedNumbers'.
+     * Gets the fixed numbers of the board as a flat array, leaving every alterable cell empty.
+     *
+     * @return  Fixed numbers indexed by row*size+column, 0 for alterable cells.
+     */
+    private byte[] givenCells() {
+        int size = this.getSize();
+        byte[] cells = new byte[size*size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++)
+                if (this.isFixed(i,j)) cells[i*size+j] = (byte)this.getCell(i,j);
+        }
+        return cells;
+    }
+
+    /**
+     * Solves the board's current contents, including numbers entered by the user, without modifying the board or
+     * its undo/redo history.
+     *
+     * @return  New array holding the solution indexed by row*size+column, or null if no solution exists.
+     */
+    public byte[] solve() {
+        byte[] solution = new byte[SIZE*SIZE];
+        return trySolve(solution) ? solution : null;
+    }
+
+    /**
+     * Determines whether the board's current contents, including numbers entered by the user, can be completed into
+     * a solution. Works entirely on a scratch buffer owned by the board and allocates nothing.
+     *
+     * @return  True if a solution exists, false otherwise.
+     */
+    public boolean trySolve() {
+        return trySolve(null);
+    }
+
+    /**
+     * Solves the board's current contents, including numbers entered by the user, into a caller supplied array.
+     * The board and its undo/redo history are left untouched.
+     *
+     * @param solution  Array of size*size elements receiving the solution, or null to only test for one.
+     * @return  True if a solution exists, false otherwise.
+     */
+    public boolean trySolve(byte[] solution) {
+        if (solveBuffer == null) solveBuffer = new byte[SIZE*SIZE];
+        this.copyCells(solveBuffer);
+        return this.solver.solveInto(SIZE, solveBuffer, solution != null ? solution : solveBuffer);
+    }
+
+    /**
+     * Counts the solutions of the puzzle formed by the board's fixed numbers using the selected solver engine,
+     * stopping once 'limit' solutions are found. The board itself is not modified.
+     *
+     * @param limit Maximum number of solutions to count; 2 is enough to test uniqueness.
+     * @return  Number of solutions found, never more than 'limit'.
+     */
+    public int countSolutions(int limit) {
+        return this.solver.countSolutions(this.getSize(), givenCells(), limit);
+    }
+
+    /**
+     * Determines whether the puzzle formed by the board's fixed numbers has exactly one solution.
+     *
+     * @return  True if the puzzle has a unique solution, false if it has none or several.
+     */
+    public boolean hasUniqueSolution() {
+        return countSolutions(2) == 1;
+    }
+
+    /** Gets the solver engine used by solveBoard. */
+    public SudokuSolver getSolver() { return this.solver; }
+
+    /** Sets the solver engine used by solveBoard. */
+    public void setSolver(SudokuSolver solver) {
+        if (solver == null) throw new IllegalArgumentException("Solver cannot be null.");
+        this.solver = solver;
+    }
+
+    /**
+     * Determines if the given location belongs to the set of unalterable cells by checking the board's fixed cell
+     * bitset in constant time.
      *
      * @param row   Row index of location.
      * @param column    Column index of location.
      * @return  True if the number does not belong to the fixed number set, false otherwise.
      */
     public boolean canAlterNumber(int row, int column) {
-        for (Cell fixedNumber: fixedNumbers) {
-            if (row == fixedNumber.row && column == fixedNumber.column) return false;
-        }
-        return true;
+        return !this.isFixed(row,column);
     }
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
+     * Rebuilds the candidate bitmask of every cell from the occupancy masks. Unalterable cells receive an empty mask.
+     * The grid is already maintained incrementally on every move, so this is only needed to recover from direct
+     * writes that bypass the board.
      *
-     * @return
+     * @return  Candidate masks indexed by row*size+column (see Candidates); the array is owned by the board and must
+     * not be modified.
      */
-    public LinkedList<Integer>[][] generatePossibleNumberGrid() {
-        LinkedList[][] grid = new LinkedList[this.getSize()][this.getSize()];
-        for (int i = 0; i < this.getSize(); i++) {
-            for (int j = 0; j < this.getSize(); j++) {
-                grid[i][j] = new LinkedList<Integer>();
-                if (!this.canAlterNumber(i,j)) continue;
-                for (int num = 1; num <= this.getSize(); num++) {
-                    if (!isInRow(num,i,j) && !isInColumn(num,i,j) && !isInSubsquare(num,i,j)) grid[i][j].addLast(num);
+    public int[] generatePossibleNumberGrid() {
+        int size = this.getSize();
+        int full = Candidates.full(size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if (!this.canAlterNumber(i,j)) {
+                    possibleNumbers[i*size+j] = 0;
+                    continue;
                 }
+                possibleNumbers[i*size+j] = full & ~usedNumbers(i,j);
             }
         }
-        return grid;
+        possibleNumbersVersion++;
+        return possibleNumbers;
     }
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
-     * //TODO: Test
+     * Gets the version of the possible number grid, which changes whenever any cell's candidates change. Consumers
+     * can compare versions to skip work when nothing has changed.
      *
-     * @param num
-     * @param row
-     * @param col
+     * @return  Current grid version.
      */
-    public void addToPossibleNumberGrid(int num, int row, int col) {
-        if (possibleNumbers == null) throw new IllegalArgumentException("Grid has not been initialized.");
-        LinkedList<Integer> cell;
-        for (int i = 0; i < this.getSize(); i++) {
-            if (isValidInsert(num, row, col)) {
-                cell = possibleNumbers[i][col]; // Add to row
-                int index = 0;
-                for (Integer n = cell.get(index); index < cell.size(); index++)
-                    if (n > num) cell.add(index,num);
-                cell = possibleNumbers[row][i]; // Add to column
-                index = 0;
-                for (Integer n = cell.get(index); index < cell.size(); index++)
-                    if (n > num) cell.add(index,num);
-                for (int j = 0; j < SUBSQUARE_SIZE; j++) {
-                    cell = possibleNumbers[j*(row/SUBSQUARE_SIZE)][(i/col)+(i%SUBSQUARE_SIZE)]; // Add to subsquare
-                    index = 0;
-                    for (Integer n = cell.get(index); index < cell.size(); index++)
-                        if (n > num) cell.add(index,num);
-                }
-            }
+    public long getPossibleNumbersVersion() {
+        return this.possibleNumbersVersion;
+    }
+
+    /**
+     * Gets the candidate bitmask of a cell from the maintained possible number grid.
+     *
+     * @param row       Row index of location.
+     * @param column    Column index of location.
+     * @return  Mask with bit n-1 set for every number n that could be inserted into the cell.
+     */
+    public int getCandidateMask(int row, int column) {
+        return possibleNumbers[row*SIZE+column];
+    }
+
+    /**
+     * Gets the amount of candidates of a cell from the maintained possible number grid.
+     *
+     * @param row       Row index of location.
+     * @param column    Column index of location.
+     * @return  Number of values that could be inserted into the cell.
+     */
+    public int getCandidateCount(int row, int column) {
+        return Candidates.count(getCandidateMask(row,column));
+    }
+
+    /**
+     * Gets the index of the subsquare a cell belongs to, numbered in row-major order.
+     *
+     * @param row       Row index of location.
+     * @param column    Column index of location.
+     * @return  Subsquare index between 0 and SIZE-1.
+     */
+    private int subsquareIndex(int row, int column) {
+        return (row/SUBSQUARE_SIZE)*SUBSQUARE_SIZE + column/SUBSQUARE_SIZE;
+    }
+
+    /**
+     * Adds a number back to the candidates of every alterable cell sharing a row, column or subsquare with the given
+     * location, so long as the number does not conflict with that cell's other peers. Called by setCell after the
+     * number is removed from the given location.
+     *
+     * @param num   Number being made available.
+     * @param row   Row index of location.
+     * @param col   Column index of location.
+     */
+    private void addToPossibleNumberGrid(int num, int row, int col) {
+        int bit = Candidates.bit(num);
+        int squareRow = SUBSQUARE_SIZE * (row/SUBSQUARE_SIZE);
+        int squareCol = SUBSQUARE_SIZE * (col/SUBSQUARE_SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            addCandidate(bit, num, i, col); // Add to column
+            addCandidate(bit, num, row, i); // Add to row
+            addCandidate(bit, num, squareRow + i/SUBSQUARE_SIZE, squareCol + i%SUBSQUARE_SIZE); // Add to subsquare
         }
     }
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
-     * //TODO: Test
+     * Helper for addToPossibleNumberGrid that adds a number to a single cell's candidates if it is a valid insert.
+     */
+    private void addCandidate(int bit, int num, int row, int col) {
+        if (!canAlterNumber(row,col) || (usedNumbers(row,col) & bit) != 0) return;
+        possibleNumbers[row*SIZE+col] |= bit;
+    }
+
+    /**
+     * Removes a number from the candidates of every cell sharing a row, column or subsquare with the given location.
+     * Called by setCell after the number is inserted at the given location.
      *
-     * @param num
-     * @param row
-     * @param col
+     * @param num   Number being taken.
+     * @param row   Row index of location.
+     * @param col   Column index of location.
      */
-    public void removeFromPossibleNumberGrid(int num, int row, int col) {
-        if (possibleNumbers == null) throw new IllegalArgumentException("Grid has not been initialized.");
-        for (int i = 0; i < this.getSize(); i++) {
-            possibleNumbers[i][col].remove(num); // Remove from row
-            possibleNumbers[row][i].remove(num); // Remove from column
-            for (int j = 0; j < SUBSQUARE_SIZE; j++) possibleNumbers[j*(row/SUBSQUARE_SIZE)][(i/col)+(i%SUBSQUARE_SIZE)].remove(num); // Remove from subsquare
+    private void removeFromPossibleNumberGrid(int num, int row, int col) {
+        int mask = ~Candidates.bit(num);
+        int squareRow = SUBSQUARE_SIZE * (row/SUBSQUARE_SIZE);
+        int squareCol = SUBSQUARE_SIZE * (col/SUBSQUARE_SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            if (i != row) possibleNumbers[i*SIZE+col] &= mask; // Remove from column
+            if (i != col) possibleNumbers[row*SIZE+i] &= mask; // Remove from row
+            int r = squareRow + i/SUBSQUARE_SIZE;
+            int c = squareCol + i%SUBSQUARE_SIZE;
+            if (r != row || c != col) possibleNumbers[r*SIZE+c] &= mask; // Remove from subsquare
         }
     }
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
+     * Prints the candidates of every cell in a possible number grid.
      *
-     * @param grid
+     * @param grid  Candidate masks indexed by row*size+column.
+     * @param size  Side length of the board the grid belongs to.
      */
-    private static void printNumberGrid(LinkedList[][] grid) {
-        for (int i = 0; i < grid.length; i++) {
-            for (int j = 0; j < grid[i].length; j++) {
+    private static void printNumberGrid(int[] grid, int size) {
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
                 System.out.print("[ ");
-                for (int k = 0; k < grid[i][j].size(); k++) {
-                    System.out.print(grid[i][j].get(k) + " ");
+                for (int m = grid[i*size+j]; m != 0; m &= m - 1) {
+                    System.out.print(Candidates.lowest(m) + " ");
                 }
 
                 System.out.print("], ");
@@ -502,24 +734,17 @@ public class SudokuBoard extends Board {
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
+     * Appends a single board to a board list file, one line per row of space separated numbers. Opens and closes the
+     * file on every call; use a TextBoardSink to write many boards.
      *
-     * @param fName
-     * @param SB
+     * @param SB    Board being written.
+     * @param fName Board list file; created if it does not exist.
      */
     public static void writeBoardToFile(SudokuBoard SB, File fName) {
-        try {
-            FileWriter writer = new FileWriter(fName,true);
-            for (int i = 0; i < SB.getSize(); i++) {
-                StringBuilder row = new StringBuilder();
-                for (int j = 0; j < SB.getSize(); j++) {
-                    row.append(SB.getCell(i,j));
-                    row.append(" ");
-                }
-                row.append("\n");
-                writer.write(row.toString());
-            }
-            writer.close();
+        byte[] cells = new byte[SB.getSize()*SB.getSize()];
+        SB.copyCells(cells);
+        try (TextBoardSink sink = new TextBoardSink(fName, SB.getSize(), true)) {
+            sink.add(cells, null);
         }
         catch (java.io.IOException ex) {
             System.out.println(ex);
@@ -528,33 +753,36 @@ public class SudokuBoard extends Board {
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
+     * Reads a board list file where each board is written as 'boardSize' lines of whitespace separated numbers
+     * (0 for an empty cell), or as one line of 'boardSize' squared characters; see BoardListParser. Every board is
+     * checked for conflicting numbers.
      *
-     * @param boardFile
-     * @return
+     * @param boardFile File to be read.
+     * @param boardSize Side length of the boards in the file.
+     * @return  Boards read, with every non-zero number as a fixed number; those read before an error if the file
+     *          cannot be read or is malformed.
      */
     public static ArrayList<SudokuBoard> readBoardListFile(File boardFile, int boardSize) {
+        return readBoardListFile(boardFile, boardSize, true);
+    }
+
+    /**
+     * Reads a board list file, building each board through the trusted bulk load of fromCells.
+     *
+     * @param boardFile File to be read.
+     * @param boardSize Side length of the boards in the file.
+     * @param validate  True to check every board for conflicting numbers; false for libraries known to be valid.
+     * @return  Boards read, with every non-zero number as a fixed number; those read before an error if the file
+     *          cannot be read or is malformed.
+     */
+    public static ArrayList<SudokuBoard> readBoardListFile(File boardFile, int boardSize, boolean validate) {
         ArrayList<SudokuBoard> readBoards = new ArrayList<>();
+        BoardListParser parser = new BoardListParser(boardSize);
+        parser.setValidate(validate);
         try {
-            java.util.Scanner input = new java.util.Scanner(boardFile);
-            while (input.hasNext()) {
-                SudokuBoard board = new SudokuBoard(boardSize);
-                for (int i = 0; i < boardSize; i++) {
-                    String row = input.nextLine();
-                    char[] row_chars = row.toCharArray();
-                    int column = 0;
-                    for (char row_char : row_chars) {
-                        if (row_char == ' ') continue;
-                        int num = row_char - '0';
-                        board.insertFixedNumber(num, i, column);
-                        column++;
-                    }
-                }
-                readBoards.add(board);
-            }
-            input.close();
+            parser.parse(boardFile, cells -> readBoards.add(fromCells(boardSize, cells)));
         }
-        catch (java.io.FileNotFoundException ex) {
+        catch (java.io.IOException ex) {
             System.out.println(ex);
         }
         return readBoards;
@@ -562,24 +790,113 @@ public class SudokuBoard extends Board {
 
     /**
      * @author Marco Soto
-     * //TODO: DOcumentation
+     * Creates an independent copy of a board, including its fixed numbers, entered numbers and undo/redo history.
+     * The board state is copied array by array rather than replayed through insertNumber.
      *
-     * @param SB
-     * @return
+     * @param SB    Board being copied.
+     * @return  New board equal to the given one.
      */
     public static SudokuBoard copy(SudokuBoard SB) {
-        System.out.println("Copying Board");
         SudokuBoard copy = new SudokuBoard(SB.getSize());
-        copy.redoList = (Stack)SB.redoList.clone();
-        copy.undoList = (Stack)SB.undoList.clone();
-        for (Cell c: SB.fixedNumbers) copy.insertFixedNumber(SB.getCell(c.row,c.column),c.row,c.column);
-        for (int i = 0; i < SB.getSize(); i++) {
-            for (int j = 0; j < SB.getSize(); j++)
-                copy.insertNumber(SB.getCell(i,j),i,j);
-        }
+        copy.copyFrom(SB);
+        System.arraycopy(SB.rowOccupancy, 0, copy.rowOccupancy, 0, SB.SIZE);
+        System.arraycopy(SB.columnOccupancy, 0, copy.columnOccupancy, 0, SB.SIZE);
+        System.arraycopy(SB.subsquareOccupancy, 0, copy.subsquareOccupancy, 0, SB.SIZE);
+        System.arraycopy(SB.possibleNumbers, 0, copy.possibleNumbers, 0, SB.possibleNumbers.length);
+        System.arraycopy(SB.numberOccurrences, 0, copy.numberOccurrences, 0, SB.numberOccurrences.length);
+        copy.numbersAdded = SB.numbersAdded;
+        copy.undoList.addAll(SB.undoList); // Moves are never modified once recorded, so they can be shared
+        copy.redoList.addAll(SB.redoList);
         return copy;
     }
 
+    /**
+     * Writes the whole game into a compact binary snapshot without Java serialization: the cells, the fixed cell
+     * bitset and the undo and redo histories at four bytes per move. Occupancy masks, candidates and number
+     * occurrences follow from the cells, so they are rebuilt on restore instead of being stored. A 9x9 game with a
+     * hundred moves takes under 600 bytes and microseconds to snapshot, so the game can be snapshotted on the event
+     * dispatch thread after every move.
+     *
+     * @return  Snapshot read by fromSnapshot.
+     */
+    public byte[] toSnapshot() {
+        byte[] cells = new byte[SIZE*SIZE];
+        long[] fixed = new long[(cells.length+63) >>> 6];
+        copyCells(cells);
+        copyFixed(fixed);
+        ByteBuffer snapshot = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES + cells.length + 8*fixed.length
+                + 4*(undoList.size() + redoList.size()));
+        snapshot.putInt(SNAPSHOT_MAGIC).putShort(SNAPSHOT_VERSION).putShort((short)SIZE);
+        snapshot.putInt(undoList.size()).putInt(redoList.size());
+        snapshot.put(cells);
+        for (long word: fixed) snapshot.putLong(word);
+        for (Move move: undoList) putMove(snapshot, move); // Bottom of the stack first
+        for (Move move: redoList) putMove(snapshot, move);
+        return snapshot.array();
+    }
+
+    private void putMove(ByteBuffer snapshot, Move move) {
+        snapshot.putShort((short)(move.position.row*SIZE + move.position.column));
+        snapshot.put((byte)move.numberInserted).put((byte)move.numberReplaced);
+    }
+
+    /**
+     * Restores a game from a snapshot written by toSnapshot, including its undo and redo histories. The cells are
+     * loaded at once and the derived state is computed in one pass; the snapshot is checked for conflicting numbers
+     * and out of range moves, so a damaged file never yields an inconsistent board.
+     *
+     * @param snapshot  Snapshot bytes.
+     * @return  New board holding the saved game.
+     * @throws IOException  If the bytes are not a snapshot or are damaged.
+     */
+    public static SudokuBoard fromSnapshot(byte[] snapshot) throws IOException {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getShort() != SNAPSHOT_VERSION)
+                throw new IOException("Not a saved game.");
+            int size = buffer.getShort();
+            int undoCount = buffer.getInt();
+            int redoCount = buffer.getInt();
+            if (size < 1 || size > 25 || undoCount < 0 || redoCount < 0) throw new IOException("Damaged saved game.");
+            SudokuBoard board = new SudokuBoard(size);
+            byte[] cells = new byte[size*size];
+            long[] fixed = new long[(cells.length+63) >>> 6];
+            buffer.get(cells);
+            for (int i = 0; i < fixed.length; i++) fixed[i] = buffer.getLong();
+            if (!Candidates.occupancy(size, cells, board.rowOccupancy, board.columnOccupancy, board.subsquareOccupancy))
+                throw new IOException("Saved game has conflicting numbers.");
+            board.loadCells(cells, fixed);
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] == 0) {
+                    if (board.isFixed(i/size, i%size)) throw new IOException("Saved game has an empty fixed cell.");
+                    continue;
+                }
+                board.numberOccurrences[cells[i]]++;
+                board.numbersAdded++;
+            }
+            board.generatePossibleNumberGrid();
+            readMoves(buffer, board.undoList, undoCount, size);
+            readMoves(buffer, board.redoList, redoCount, size);
+            if (buffer.hasRemaining()) throw new IOException("Damaged saved game.");
+            return board;
+        }
+        catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IOException("Damaged saved game.", ex);
+        }
+    }
+
+    private static void readMoves(ByteBuffer buffer, Stack<Move> moves, int count, int size) throws IOException {
+        if (count > buffer.remaining()/4) throw new IOException("Damaged saved game.");
+        for (int i = 0; i < count; i++) {
+            int cell = buffer.getShort();
+            int inserted = buffer.get();
+            int replaced = buffer.get();
+            if (cell < 0 || cell >= size*size || inserted < 0 || inserted > size || replaced < 0 || replaced > size)
+                throw new IOException("Saved game has an invalid move.");
+            moves.push(new Move(inserted, new Cell(cell/size, cell%size), replaced));
+        }
+    }
+
     /**
      * @author Marco Soto
      * //TODO: Documentation
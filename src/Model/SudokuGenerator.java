@@ -8,266 +8,360 @@
  * verifies their solution and develops new puzzle combinations by      *
  * translating and rotating the given puzzle. Once the desired puzzles  *
  * are generated, the contents of each board are written to a file and  *
- * saved. This program is too time consuming for practical production   *
- * applications so the program is run seperately and the file outputted *
- * is included in the production applications required asset files.     *
+ * saved. The program is run seperately from the game, in parallel via  *
+ * BatchGenerator, and the file outputted is included in the production *
+ * applications required asset files.                                   *
  ************************************************************************/
 
 package Model;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.LinkedList;
 import java.util.Random;
 
 public class SudokuGenerator {
     /**
-     * //TODO: Documentation
-     * @param args
+     * Runs the board generator.
+     * Usage: SudokuGenerator boardSize count outputFile [threads [seed]]
+     * @param args  Board size, number of boards, output file, optional worker thread count (defaults to the number of
+     *              available processors) and optional seed (random by default; printed so the run can be repeated).
      */
     public static void main(String[] args) {
-        System.out.println("Running Board Generator Program");
-        generateRandomBoardsFile(4);
+        if (args.length < 3) {
+            System.out.println("Usage: SudokuGenerator boardSize count outputFile [threads [seed [checkpointFile]]]");
+            return;
+        }
+        int boardSize = Integer.parseInt(args[0]);
+        int count = Integer.parseInt(args[1]);
+        File output = new File(args[2]);
+        int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        BatchGenerator generator = new BatchGenerator(boardSize, threads);
+        if (args.length > 4) generator.setSeed(Long.parseLong(args[4]));
+        File checkpoint = (args.length > 5) ? new File(args[5]) : null;
+        if (checkpoint != null && checkpoint.exists())
+            System.out.println("Running Board Generator Program, resuming from " + checkpoint);
+        else System.out.println("Running Board Generator Program, seed " + generator.getSeed());
+        try {
+            long start = System.nanoTime();
+            int written = generator.generate(output, count, checkpoint);
+            System.out.printf("Wrote %d boards of size %d to %s in %.1f s (seed %d)%n",
+                    written, boardSize, output, (System.nanoTime() - start) / 1e9, generator.getSeed());
+        }
+        catch (IOException ex) {
+            System.out.println(ex);
+        }
+    }
+
+    /**
+     * Generates unique-solution puzzles, one per equivalence class, and appends them to the output file.
+     * @param boardSize Side length of the generated boards.
+     * @param output    Board list file the boards are appended to.
+     * @param count     Number of boards to write.
+     * @param threads   Number of worker threads.
+     * @param seed      Generator seed; the same seed writes the same boards whatever the thread count.
+     * @return  Number of boards written.
+     * @throws IOException  If the output file cannot be written.
+     */
+    public static int generateRandomBoardsFile(int boardSize, File output, int count, int threads, long seed)
+            throws IOException {
+        BatchGenerator generator = new BatchGenerator(boardSize, threads);
+        generator.setSeed(seed);
+        return generator.generate(output, count);
+    }
+
+    /**
+     * Generates unique-solution puzzles like generateRandomBoardsFile, saving progress to a checkpoint file so an
+     * interrupted run can be called again with the same arguments and resume where it stopped.
+     * @param boardSize     Side length of the generated boards.
+     * @param output        Board list file the boards are appended to.
+     * @param count         Number of boards the whole run writes.
+     * @param threads       Number of worker threads.
+     * @param seed          Generator seed; ignored when resuming, which uses the checkpoint's seed.
+     * @param checkpoint    File progress is saved to and resumed from.
+     * @return  Number of boards written by the whole run.
+     * @throws IOException  If a file cannot be read or written.
+     */
+    public static int generateRandomBoardsFile(int boardSize, File output, int count, int threads, long seed,
+                                               File checkpoint) throws IOException {
+        BatchGenerator generator = new BatchGenerator(boardSize, threads);
+        generator.setSeed(seed);
+        return generator.generate(output, count, checkpoint);
+    }
+
+    /**
+     * Derives the seed of an independent random stream for one job of a seeded run (SplitMix64 mixing of the seed
+     * and the job index), so parallel jobs draw unrelated numbers and each job's numbers depend only on its index.
+     * @param seed  Run seed.
+     * @param index Job index.
+     * @return  Seed for the job's random generator.
+     */
+    public static long jobSeed(long seed, long index) {
+        long z = seed + (index + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets a clue count that gives playable puzzles for the given board size.
+     * @param boardSize Side length of the board.
+     * @return  Number of fixed numbers to keep in generated puzzles.
+     */
+    public static int defaultClueCount(int boardSize) {
+        switch (boardSize) {
+            case 4:
+                return 6;
+            case 9:
+                return 28;
+            case 16:
+                return 112;
+            default:
+                return boardSize*boardSize / 2;
+        }
     }
 
     /**
-     * //TODO: Documentation
-     * @param boardSize
-     * @return
+     * Builds a random solved grid of any supported size. The diagonal subsquares do not constrain each other, so they
+     * are filled with independent random permutations and the remainder of the grid is completed by the default
+     * solver engine. Some 4x4 fillings cannot be completed; those are drawn again.
+     * @param boardSize Side length of the board.
+     * @param rand      Source of randomness.
+     * @return  Solved cells indexed by row*boardSize+column.
      */
-    public static void generateRandomBoardsFile(int boardSize) {
-        System.out.println("--------------------------------------------------\n" +
-                "Generating Random Boards File for boards of size " + boardSize +
-                "\n--------------------------------------------------");
-        String fileName = "/Users/msoto/Documents/workspace/Sudoku/src/Assets/boardList_" + boardSize + ".txt";
-        File fName = new java.io.File(fileName);
-        int boardsWritten = 0;
-        int iteration = 0;
-        int limit = 700;
-        while (boardsWritten < limit) {
-            System.out.println("Iteration: " + iteration);
-            System.out.println("Boards Added: " + boardsWritten);
-            SudokuBoard SB = populateRandomBoard(boardSize);
-            if (SB.solveBoard()) {
-                SB.clearBoard();
-                LinkedList<SudokuBoard> boardCombinations = generateBoardCombinations(SB);
-                for (SudokuBoard i: boardCombinations) {
-                    SudokuBoard x = SudokuBoard.copy(i);
-                    if (x.solveBoard()){
-                        SudokuBoard.writeBoardToFile(i,fName);
-                        boardsWritten++;
-                    }
-                    if (boardsWritten == limit) return;
+    public static byte[] generateSolvedGrid(int boardSize, Random rand) {
+        return generateSolvedGrid(boardSize, rand, SolverType.getDefault().create());
+    }
+
+    /**
+     * Builds a random solved grid with the given solver engine. The grid depends only on 'rand' as long as the
+     * engine is deterministic, which every single-threaded engine is.
+     * @param boardSize Side length of the board.
+     * @param rand      Source of randomness.
+     * @param solver    Solver engine completing the grid.
+     * @return  Solved cells indexed by row*boardSize+column.
+     */
+    public static byte[] generateSolvedGrid(int boardSize, Random rand, SudokuSolver solver) {
+        int subSquareSize = (int)Math.sqrt(boardSize);
+        byte[] cells = new byte[boardSize*boardSize];
+        byte[] numbers = new byte[boardSize];
+        while (true) {
+            for (int square = 0; square < subSquareSize; square++) {
+                for (int i = 0; i < boardSize; i++) numbers[i] = (byte)(i+1);
+                for (int i = boardSize-1; i > 0; i--) { // Fisher-Yates shuffle
+                    int j = rand.nextInt(i+1);
+                    byte temp = numbers[i];
+                    numbers[i] = numbers[j];
+                    numbers[j] = temp;
+                }
+                for (int i = 0; i < boardSize; i++) {
+                    int row = square*subSquareSize + i/subSquareSize;
+                    int col = square*subSquareSize + i%subSquareSize;
+                    cells[row*boardSize+col] = numbers[i];
                 }
             }
-            iteration++;
+            SolverResult result = solver.solve(boardSize, cells);
+            if (result.isSolved()) return result.getSolution();
         }
     }
 
     /**
-     * //TODO: Documentation
-     * @param boardSize
-     * @return
+     * Generates a puzzle with exactly one solution by building a random solved grid and removing its numbers in
+     * random order, putting back every number whose removal would allow a second solution. Removal stops once the
+     * target clue count is reached; a puzzle that cannot get that low is returned minimal, meaning no single clue can
+     * be removed without losing uniqueness. This is the generation path of both the puzzle pool's local source and
+     * BatchGenerator. The puzzle depends only on 'rand' as long as the engine is deterministic.
+     * @param boardSize Side length of the board.
+     * @param clues     Target number of fixed numbers; 0 for a minimal puzzle.
+     * @param rand      Source of randomness.
+     * @param solver    Solver engine completing the grid and checking the removals.
+     * @return  Puzzle cells indexed by row*boardSize+column, 0 for empty.
      */
-    public static SudokuBoard populateRandomBoard(int boardSize) {
-        java.util.Random rand = new Random();
-        SudokuBoard board = new SudokuBoard(boardSize);
-        int hintsAdded = 0;
-        int minHints = (boardSize == 9) ? 17: 5;
-        int maxHints = (boardSize == 9) ? 25: 7;
-        int hints = rand.nextInt(maxHints-minHints+1)+minHints;
-        while (hintsAdded < hints) {
-            int row = rand.nextInt(boardSize);
-            int col = rand.nextInt(boardSize);
-            int num = rand.nextInt(boardSize)+1;
-            if (board.insertFixedNumber(num, row, col)) hintsAdded++;
+    public static byte[] generateUniquePuzzle(int boardSize, int clues, Random rand, SudokuSolver solver) {
+        return removeClues(boardSize, generateSolvedGrid(boardSize, rand, solver), clues, rand, solver);
+    }
+
+    /**
+     * Removes numbers from a solved grid, in random order, while the puzzle keeps a unique solution. Once a number
+     * has been put back it is never tried again: removing more clues can only add solutions, so a clue needed for
+     * uniqueness stays needed.
+     * @param boardSize Side length of the board.
+     * @param solution  Solved cells indexed by row*boardSize+column; modified in place.
+     * @param clues     Target number of remaining numbers.
+     * @param rand      Source of randomness.
+     * @param solver    Solver engine used for the uniqueness checks.
+     * @return  The 'solution' array, now holding the puzzle.
+     */
+    public static byte[] removeClues(int boardSize, byte[] solution, int clues, Random rand, SudokuSolver solver) {
+        int numCells = boardSize*boardSize;
+        int[] order = new int[numCells];
+        for (int i = 0; i < numCells; i++) order[i] = i;
+        int remaining = numCells;
+        for (int i = 0; i < numCells && remaining > clues; i++) { // Fisher-Yates shuffle as cells are visited
+            int j = i + rand.nextInt(numCells - i);
+            int cell = order[j];
+            order[j] = order[i];
+            order[i] = cell;
+            byte number = solution[cell];
+            solution[cell] = 0;
+            if (solver.countSolutions(boardSize, solution, 2) == 1) remaining--;
+            else solution[cell] = number;
         }
-        return board;
+        return solution;
     }
 
     /**
-     * //TODO: Documentation
-     * @param SB
-     * @return
+     * Creates a board holding the given cells as fixed numbers.
+     * @param boardSize Side length of the board.
+     * @param cells     Cells indexed by row*boardSize+column, 0 for empty.
+     * @return  New board.
      */
-    public static LinkedList<SudokuBoard> generateBoardCombinations(SudokuBoard SB) {
-        LinkedList<SudokuBoard> combinations = new LinkedList<>();
-        int subSquareSize = (int)Math.sqrt(SB.getSize());
-        SudokuBoard newBoard = SB;
-        for (int k = 0; k <= 4; k++) {
-            switch (k) {
-                case 1:
-                    newBoard = rotateBoardRight(SB);
-                    break;
-                case 2:
-                    newBoard = rotateBoardLeft(SB);
-                    break;
-                case 3:
-                    newBoard = flipBoardHorizontally(SB);
-                    break;
-                case 4:
-                    newBoard = flipBoardVertically(SB);
-                    break;
-            }
-            combinations.add(newBoard);
-            for (int i = 1; i <= subSquareSize; i++) {
-                for (int j = 1; j <= subSquareSize; j++) {
-                    if (i != j && i < j) {
-                        newBoard = swapSquareRow(SB,i,j);
-                        combinations.add(newBoard);
-                        newBoard = swapSquareColumn(SB,i,j);
-                        combinations.add(newBoard);
-                    }
+    static SudokuBoard toBoard(int boardSize, byte[] cells) {
+        return SudokuBoard.fromCells(boardSize, cells);
+    }
+
+    /**
+     * Gets the transforms producing a board's combinations: the board itself, its two rotations and two flips, each
+     * also followed by every swap of two bands and of two stacks.
+     * @param boardSize Side length of the board.
+     * @return  Combination transforms, the identity first.
+     */
+    public static ArrayList<BoardTransform> combinationTransforms(int boardSize) {
+        int subSquareSize = (int)Math.sqrt(boardSize);
+        BoardTransform[] bases = {
+                BoardTransform.identity(boardSize),
+                BoardTransform.rotateRight(boardSize),
+                BoardTransform.rotateLeft(boardSize),
+                BoardTransform.flipHorizontally(boardSize),
+                BoardTransform.flipVertically(boardSize)
+        };
+        ArrayList<BoardTransform> transforms = new ArrayList<>();
+        for (BoardTransform base: bases) {
+            transforms.add(base);
+            for (int i = 0; i < subSquareSize; i++) {
+                for (int j = i+1; j < subSquareSize; j++) {
+                    int[] order = swappedOrder(subSquareSize, i, j);
+                    transforms.add(base.then(BoardTransform.permuteBands(boardSize, order)));
+                    transforms.add(base.then(BoardTransform.permuteStacks(boardSize, order)));
                 }
             }
         }
+        return transforms;
+    }
+
+    /**
+     * Generates a board's combinations, the boards given by combinationTransforms.
+     * @param SB    Board to be combined.
+     * @return  New boards, the first one a copy of the given board.
+     */
+    public static LinkedList<SudokuBoard> generateBoardCombinations(SudokuBoard SB) {
+        LinkedList<SudokuBoard> combinations = new LinkedList<>();
+        for (BoardTransform transform: combinationTransforms(SB.getSize()))
+            combinations.add(transformBoard(SB, transform));
         return combinations;
     }
 
     /**
-     * //TODO: Documenation
-     * @param SB
-     * @return
+     * Applies a transform to a board. The fixed numbers are carried along by transforming the board's givens as well,
+     * and the result is bulk loaded, so no number goes through the validated insert again.
+     * @param SB        Board to be transformed.
+     * @param transform Transform for the board's size.
+     * @return  New board holding the transformed numbers, with the transformed fixed numbers still fixed.
      */
-    public static SudokuBoard rotateBoardLeft(SudokuBoard SB) {
-        SudokuBoard rotatedBoard = new SudokuBoard(SB.getSize());
-        for (int j = 0; j < SB.getSize(); j++) {
-            int ind = SB.getSize()-1-j;
-            for (int i = 0; i < SB.getSize(); i++) {
-                int num = SB.getCell(i,j);
-                rotatedBoard.insertNumber(num, ind, i);
-            }
+    public static SudokuBoard transformBoard(SudokuBoard SB, BoardTransform transform) {
+        int size = SB.getSize();
+        byte[] cells = new byte[size*size];
+        byte[] transformed = new byte[size*size];
+        byte[] givens = new byte[size*size];
+        long[] fixed = new long[(cells.length+63) >>> 6];
+        SB.copyCells(cells);
+        transform.apply(cells, transformed);
+        for (int i = 0; i < cells.length; i++) {
+            if (!SB.isFixed(i/size, i%size)) cells[i] = 0;
+        }
+        transform.apply(cells, givens); // Relabeling keeps empty cells empty, so the givens land on the fixed cells
+        for (int i = 0; i < givens.length; i++) {
+            if (givens[i] != 0) fixed[i >>> 6] |= 1L << i;
         }
-        return rotatedBoard;
+        return SudokuBoard.fromCells(size, transformed, fixed);
+    }
+
+    /**
+     * Rotates a board a quarter turn counterclockwise.
+     * @param SB    Board to be rotated.
+     * @return  New rotated board.
+     */
+    public static SudokuBoard rotateBoardLeft(SudokuBoard SB) {
+        return transformBoard(SB, BoardTransform.rotateLeft(SB.getSize()));
     }
 
     /**
-     * //TODO: Documentation
-     * @param SB
-     * @return
+     * Rotates a board a quarter turn clockwise.
+     * @param SB    Board to be rotated.
+     * @return  New rotated board.
      */
     public static SudokuBoard rotateBoardRight(SudokuBoard SB) {
-        SudokuBoard rotatedBoard = new SudokuBoard(SB.getSize());
-        for (int i = 0; i < SB.getSize(); i++) {
-            int ind = SB.getSize()-1-i;
-            for (int j = 0; j < SB.getSize(); j++) {
-                int num = SB.getCell(i,j);
-                rotatedBoard.insertNumber(num, j, ind);
-            }
-        }
-        return rotatedBoard;
+        return transformBoard(SB, BoardTransform.rotateRight(SB.getSize()));
     }
 
     /**
-     * //TODO: Documentation
-     * @param SB
-     * @return
+     * Mirrors a board left to right.
+     * @param SB    Board to be flipped.
+     * @return  New flipped board.
      */
     public static SudokuBoard flipBoardVertically(SudokuBoard SB) {
-        SudokuBoard foldedBoard = new SudokuBoard(SB.getSize());
-        int halfSize = SB.getSize()/2;
-        int midCol = SB.getSize()-1-halfSize;
-        for (int i = 0; i < SB.getSize(); i++) {
-            foldedBoard.insertNumber(SB.getCell(i,midCol), i, midCol);
-            for (int j = 0; j < halfSize; j++) {
-                int leftNum = SB.getCell(i,j);
-                int rightIndex = SB.getSize()-1-j;
-                int rightNum = SB.getCell(i, rightIndex);
-                foldedBoard.insertNumber(leftNum, i, rightIndex);
-                foldedBoard.insertNumber(rightNum, i, j);
-            }
-        }
-        return foldedBoard;
+        return transformBoard(SB, BoardTransform.flipVertically(SB.getSize()));
     }
 
     /**
-     * //TODO: Documentation
-     * @param SB
-     * @return
+     * Mirrors a board top to bottom.
+     * @param SB    Board to be flipped.
+     * @return  New flipped board.
      */
     public static SudokuBoard flipBoardHorizontally(SudokuBoard SB) {
-        SudokuBoard foldedBoard = new SudokuBoard(SB.getSize());
-        int halfSize = SB.getSize()/2;
-        int midRow = SB.getSize()-1-halfSize;
-        for (int j = 0; j < SB.getSize(); j++) {
-            foldedBoard.insertNumber(SB.getCell(midRow,j), midRow, j);
-            for (int i = 0; i < halfSize; i++) {
-                int topNum = SB.getCell(i,j);
-                int bottomIndex = SB.getSize()-1-i;
-                int bottomNum = SB.getCell(bottomIndex, j);
-                foldedBoard.insertNumber(topNum, bottomIndex, j);
-                foldedBoard.insertNumber(bottomNum, i, j);
-            }
-        }
-        return foldedBoard;
+        return transformBoard(SB, BoardTransform.flipHorizontally(SB.getSize()));
     }
 
     /**
-     * //TODO: Documenation
-     * @param row1
-     * @param row2
-     * @param SB
-     * @return
+     * Swaps two rows of subsquares (bands).
+     * @param SB    Board to be swapped.
+     * @param row1  First subsquare row, from 1.
+     * @param row2  Second subsquare row, from 1.
+     * @return  New swapped board.
      */
     public static SudokuBoard swapSquareRow(SudokuBoard SB, int row1, int row2) {
         int subsquareSize = (int)Math.sqrt(SB.getSize());
         if (row1 == row2 || row1 < 1 || row2 < 1 || row1 > subsquareSize || row2 > subsquareSize)
             throw new InputMismatchException("Invalid Subsquare Row Swap Inputs");
-        row1--; row2--; // Normalize Row Inputs
-        SudokuBoard swappedBoard = new SudokuBoard(SB.getSize());
-        int firstIndex1 = row1*subsquareSize;
-        int firstIndex2 = row2*subsquareSize;
-        int lastIndex1 = firstIndex1+subsquareSize-1;
-        int lastIndex2 = firstIndex2+subsquareSize-1;
-        for (int i = 0; i < SB.getSize(); i++) {
-            int row1_index = firstIndex1 + i;
-            int row2_index = firstIndex2 + i;
-            for (int j = 0; j < SB.getSize(); j++) {
-                if (i < subsquareSize) {// Insert Swapped Numbers
-                    int num1 = SB.getCell(row1_index, j);
-                    int num2 = SB.getCell(row2_index, j);
-                    swappedBoard.insertNumber(num1, row2_index, j);
-                    swappedBoard.insertNumber(num2, row1_index, j);
-                }
-                if ((i < firstIndex1 || i > lastIndex1) && (i < firstIndex2 || i > lastIndex2)) {// Insert Remaining Numbers
-                        swappedBoard.insertNumber(SB.getCell(i,j),i,j);
-                }
-            }
-        }
-        return swappedBoard;
+        int[] order = swappedOrder(subsquareSize, row1-1, row2-1);
+        return transformBoard(SB, BoardTransform.permuteBands(SB.getSize(), order));
     }
 
     /**
-     * //TODO: Documentation
-     * @param col1
-     * @param col2
-     * @param SB
-     * @return
+     * Swaps two columns of subsquares (stacks).
+     * @param SB    Board to be swapped.
+     * @param col1  First subsquare column, from 1.
+     * @param col2  Second subsquare column, from 1.
+     * @return  New swapped board.
      */
     public static SudokuBoard swapSquareColumn(SudokuBoard SB, int col1, int col2) {
         int subsquareSize = (int)Math.sqrt(SB.getSize());
         if (col1 == col2 ||col1 < 1 || col2 < 1 || col1 > subsquareSize || col2 > subsquareSize)
             throw new InputMismatchException("Invalid Subsquare Column Swap Inputs");
-        col1--; col2--; // Normalize Input Columns
-        SudokuBoard swappedBoard = new SudokuBoard(SB.getSize());
-        int firstIndex1 = col1*subsquareSize;
-        int firstIndex2 = col2*subsquareSize;
-        int lastIndex1 = firstIndex1+subsquareSize-1;
-        int lastIndex2 = firstIndex2+subsquareSize-1;
-        for (int j = 0; j < SB.getSize(); j++) {
-            int col1_index = firstIndex1 + j;
-            int col2_index = firstIndex2 + j;
-            for (int i = 0; i < SB.getSize(); i++) {
-                if (j < subsquareSize) { // Insert Swapped Numbers
-                    int num1 = SB.getCell(i, col1_index);
-                    int num2 = SB.getCell(i, col2_index);
-                    swappedBoard.insertNumber(num1, i, col2_index);
-                    swappedBoard.insertNumber(num2, i, col1_index);
-                }
-                if ((j < firstIndex1 || j > lastIndex1) && (j < firstIndex2 || j > lastIndex2)) // Insert Remaining Numbers
-                    swappedBoard.insertNumber(SB.getCell(i,j),i,j);
-            }
-        }
-        return swappedBoard;
+        int[] order = swappedOrder(subsquareSize, col1-1, col2-1);
+        return transformBoard(SB, BoardTransform.permuteStacks(SB.getSize(), order));
+    }
+
+    /**
+     * Gets the order 0 to length-1 with positions i and j swapped.
+     */
+    private static int[] swappedOrder(int length, int i, int j) {
+        int[] order = new int[length];
+        for (int k = 0; k < length; k++) order[k] = k;
+        order[i] = j;
+        order[j] = i;
+        return order;
     }
-}
\ No newline at end of file
+}
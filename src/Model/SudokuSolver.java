@@ -0,0 +1,55 @@
+/************************************************************************
+ * SudokuSolver.java                                                    *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the interface implemented by every sudoku solver  *
+ * engine. Solvers operate on flat primitive cell arrays so they can be *
+ * used by the game board, the check action and the board generator     *
+ * without depending on SudokuBoard's validation and history logic.     *
+ ************************************************************************/
+
+package Model;
+
+/**
+ * Pluggable sudoku solving engine. Puzzles are given as flat arrays of side length 'size' squared, indexed by
+ * row*size+column, where 0 marks an empty cell. Implementations never modify the given array. Solver instances may
+ * reuse internal buffers between calls and are therefore not safe for concurrent use.
+ */
+public interface SudokuSolver {
+
+    /**
+     * Searches for a solution of the given puzzle.
+     *
+     * @param size  Side length of the board (a perfect square).
+     * @param cells Puzzle cells indexed by row*size+column, 0 for empty.
+     * @return  Result holding the solution, if one was found, and search statistics.
+     */
+    SolverResult solve(int size, byte[] cells);
+
+    /**
+     * Searches for a solution of the given puzzle and writes it into a caller supplied array instead of allocating a
+     * SolverResult. Engines override this to avoid allocating anything per call.
+     *
+     * @param size      Side length of the board (a perfect square).
+     * @param cells     Puzzle cells indexed by row*size+column, 0 for empty.
+     * @param solution  Array of size*size elements receiving the solution; may be the same array as 'cells'.
+     * @return  True if a solution was found and written, false otherwise (the array's content is then unspecified).
+     */
+    default boolean solveInto(int size, byte[] cells, byte[] solution) {
+        SolverResult result = solve(size, cells);
+        if (!result.isSolved()) return false;
+        System.arraycopy(result.getSolution(), 0, solution, 0, size*size);
+        return true;
+    }
+
+    /**
+     * Counts the solutions of the given puzzle, stopping as soon as 'limit' solutions have been found. A limit of 2 is
+     * a cheap uniqueness test.
+     *
+     * @param size  Side length of the board (a perfect square).
+     * @param cells Puzzle cells indexed by row*size+column, 0 for empty.
+     * @param limit Maximum number of solutions to count; must be positive.
+     * @return  Number of solutions found, never more than 'limit'.
+     */
+    int countSolutions(int size, byte[] cells, int limit);
+}
@@ -0,0 +1,43 @@
+/************************************************************************
+ * TextBoardSink.java                                                   *
+ * Sudoku game developed for UTEP CS 3331 Advanced OOP                  *
+ *                                                                      *
+ * This file provides the text board sink, which writes puzzles in the  *
+ * board list format read by SudokuBoard.readBoardListFile: one line    *
+ * per row of space separated numbers, 0 for an empty cell.             *
+ ************************************************************************/
+
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Board sink writing board list text files. Numbers are encoded straight into the byte buffer as ASCII digits.
+ * Solutions are not stored.
+ */
+public class TextBoardSink extends FileBoardSink {
+
+    /**
+     * Opens a text board sink.
+     *
+     * @param file      Board list file.
+     * @param boardSize Side length of the boards.
+     * @param append    True to append to the file as puzzles are flushed, false to create it, replacing it on commit.
+     * @throws IOException  If the file cannot be opened.
+     */
+    public TextBoardSink(File file, int boardSize, boolean append) throws IOException {
+        super(file, boardSize, append, boardSize*boardSize*3 + boardSize); // At most two digits and a space per cell
+    }
+
+    @Override
+    protected void encode(byte[] puzzle, byte[] solution, ByteBuffer dest) {
+        for (int i = 0; i < boardSize*boardSize; i++) {
+            int number = puzzle[i];
+            if (number >= 10) dest.put((byte)('0' + number/10));
+            dest.put((byte)('0' + number%10)).put((byte)' ');
+            if (i % boardSize == boardSize-1) dest.put((byte)'\n');
+        }
+    }
+}
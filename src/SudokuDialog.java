@@ -9,6 +9,13 @@
  * Model package.                                                       *
  ************************************************************************/
 
+import Model.Difficulty;
+import Model.DifficultyIndex;
+import Model.GameAutosaver;
+import Model.PuzzlePool;
+import Model.PuzzleSource;
+import Model.PuzzleStore;
+import Model.SolverType;
 import Model.SudokuBoard;
 
 import javax.imageio.ImageIO;
@@ -21,7 +28,6 @@ import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.Collections;
 
 
 /**
@@ -37,13 +43,34 @@ public class SudokuDialog extends JFrame {
     /** Default dimension of the dialog. */
     private final static Dimension DEFAULT_SIZE = new Dimension(650, 650);
 
+    /** Supported board sizes, in the order they are offered by the size buttons. */
+    private final static int[] BOARD_SIZES = {4, 9, 16, 25};
+
+    /**
+     * Source of randomness for choosing and generating boards, shared by every dialog. Seeded by the 'sudoku.seed'
+     * system property when it is set (java -Dsudoku.seed=42 ...) so a session's boards can be reproduced.
+     */
+    private final static java.util.Random RANDOM = createRandom();
+
+    /** Ready generated puzzles, shared by every dialog so they survive board size changes. */
+    private final static PuzzlePool PUZZLE_POOL = new PuzzlePool(PuzzleSource.local(RANDOM.nextLong()));
+
+    /** Writes the game in progress to disk in the background after every change; main resumes it on the next start. */
+    private final static GameAutosaver AUTOSAVER = new GameAutosaver(new java.io.File("sudoku_autosave.bin"));
+
     /** Special panel to display a Sudoku board. Holds SudokuBoard object used for game model */
     private BoardPanel boardPanel;  // BoardPanel instance that also holds the game's SudokuBoard object.
 
     private int boardSize = 9;
 
-    /**  Stores playable boards read from read file method called in main  */
-    private ArrayList<SudokuBoard>[] playableBoardsLists;
+    /**  Stores playable boards, packed, read from the board list files in main  */
+    private PuzzleStore[] playableBoardsLists;
+
+    /**  Difficulty indexes of the playable board lists, null where a list has none   */
+    private DifficultyIndex[] difficultyIndexes;
+
+    /**  Difficulty selected in the options menu, null for boards of any difficulty   */
+    private Difficulty difficulty = null;
 
     /**  State memory for user interface & game functionality */
     private boolean insertState = false;
@@ -51,6 +78,13 @@ public class SudokuDialog extends JFrame {
 
     private int savedNum = 0; // Number saved for board insertion
 
+    /**  Set while an empty placeholder is shown until the puzzle pool delivers a generated board  */
+    private boolean waitingForBoard = false;
+    private int boardRequest = 0; // Incremented whenever the board is replaced, so late deliveries are ignored
+
+    /**  Solver engine selected in the options menu, used by the solve and check actions    */
+    private SolverType solverType = SolverType.getDefault();
+
     /**  User interface buttons stored for easy access   */
     private ArrayList<JButton> numberButtons = new ArrayList<>();
     private ArrayList<JButton> toolbarButtons = new ArrayList<>();
@@ -59,18 +93,37 @@ public class SudokuDialog extends JFrame {
     private JLabel msgBar = new JLabel("");
 
     /** SudokuDialog default constructor and helper constuctor  */
-    public SudokuDialog(ArrayList[] boardLists) {
+    public SudokuDialog(PuzzleStore[] boardLists) {
         this(DEFAULT_SIZE,9,boardLists);
     }
+
+    public SudokuDialog(PuzzleStore[] boardLists, DifficultyIndex[] difficultyIndexes) {
+        this(DEFAULT_SIZE,9,boardLists,difficultyIndexes,null);
+    }
+
+    public SudokuDialog(Dimension dim, int size, PuzzleStore[] boardLists) {
+        this(dim,size,boardLists,new DifficultyIndex[boardLists.length],null);
+    }
     
     /**
      * @author Modified by Marco Soto
      * Create a new dialog of the given screen dimension.
      */
-    public SudokuDialog(Dimension dim, int size, ArrayList[] boardLists) {
+    public SudokuDialog(Dimension dim, int size, PuzzleStore[] boardLists, DifficultyIndex[] difficultyIndexes,
+                        Difficulty difficulty) {
+        this(dim,size,boardLists,difficultyIndexes,difficulty,null);
+    }
+
+    /**
+     * Create a new dialog of the given screen dimension, continuing the given game, or starting a new one if null.
+     */
+    private SudokuDialog(Dimension dim, int size, PuzzleStore[] boardLists, DifficultyIndex[] difficultyIndexes,
+                         Difficulty difficulty, SudokuBoard game) {
         super("Sudoku");
         URL url = this.getClass().getResource("/Assets/sudoku.png");
         this.playableBoardsLists = boardLists;
+        this.difficultyIndexes = difficultyIndexes;
+        this.difficulty = difficulty;
         try {
             BufferedImage img = ImageIO.read(url);
             this.setIconImage(img);
@@ -80,15 +133,20 @@ public class SudokuDialog extends JFrame {
         }
         setSize(dim);
         boardSize = size;
-        java.util.Random rand = new java.util.Random();
+        solverType = SolverType.forSize(size);
         this.msgBar.setText("Welcome To Sudoku!");
-        boardPanel = new BoardPanel(this.getBoardAtIndex(rand.nextInt(playableBoardsLists[0].size())), this::boardClicked);
+        boardPanel = new BoardPanel(game != null ? game : new SudokuBoard(size), this::boardClicked);
 
         configureUI();
         setLocationRelativeTo(null);
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
         setVisible(true);
         setResizable(false);
+        if (game == null) showNextBoard();
+        else {
+            updateNumberButtons();
+            autosave();
+        }
     }
 
     /**
@@ -100,6 +158,10 @@ public class SudokuDialog extends JFrame {
      */
     private void boardClicked(int x, int y) {
         this.msgBar.setForeground(Color.BLACK);
+        if (waitingForBoard) {
+            showMessage("Please wait, the board is still being generated");
+            return;
+        }
         if (!this.boardPanel.getBoard().canAlterNumber(y, x)) { // Number conflicts with fixed number
             this.msgBar.setForeground(Color.RED);
             showMessage(String.format("Can't Alter Number at row: %d col %d", y+1, x+1));
@@ -114,6 +176,7 @@ public class SudokuDialog extends JFrame {
                 if (board.getNumberOccurrence(savedNum) == this.boardSize)
                     this.numberButtons.get(savedNum-1).setVisible(false);
                 board.rememberMove(savedNum, numberReplaced, y, x);
+                autosave();
                 this.repaint();
             }
             else { // Number did conflict with another in the board
@@ -132,6 +195,7 @@ public class SudokuDialog extends JFrame {
             if (board.getCell(y,x) > 0) this.numberButtons.get(board.getCell(y,x)-1).setVisible(true);
             board.rememberMove(0, board.getCell(y,x), y, x);
             board.removeNumber(y, x);
+            autosave();
             this.repaint();
         }
         else {
@@ -167,31 +231,92 @@ public class SudokuDialog extends JFrame {
      * otherwise, prompt the user for a confirmation and then proceed
      * accordingly.
      *
-     * @param size Requested puzzle size, either 4 or 9.
+     * @param size Requested puzzle size: 4, 9, 16 or 25.
      */
     private void newClicked(int size) {
         this.msgBar.setForeground(Color.BLACK);
         System.out.println("Creating new " + size + "x" + size + " game");
         this.boardPanel.getBoard().clearBoard();
         boardSize = size;
-        java.util.Random rand = new java.util.Random();
         this.boardPanel.showPossibleNumber(false);
         insertState = deleteState = false;
         toolbarButtons.get(3).setIcon(new ImageIcon(createImageIcon("help.png").getImage().getScaledInstance( 40, 40,  java.awt.Image.SCALE_SMOOTH ))); // Reset Image Icon
 
         if (this.boardPanel.getBoard().getSize() == size) { // Repaints new board without creating new dialog
-            this.boardPanel.setBoard(getBoardAtIndex(rand.nextInt(playableBoardsLists[0].size())));
             this.showMessage("New clicked: " + size);
-            repaint();
+            showNextBoard();
         }
         else { // Opens new dialog box with new board dimension
-            SudokuDialog newView = new SudokuDialog(DEFAULT_SIZE, size, this.playableBoardsLists);
+            SudokuDialog newView = new SudokuDialog(DEFAULT_SIZE, size, this.playableBoardsLists,
+                    this.difficultyIndexes, this.difficulty);
             this.showMessage("New clicked: " + size);
             this.dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING));
         }
         System.gc();
     }
 
+    /**
+     * Snapshots the game in progress for the autosave file. Only the snapshot is taken on the event dispatch thread;
+     * the file is written in the background.
+     */
+    private void autosave() {
+        if (waitingForBoard) return; // Never replace the saved game with a placeholder
+        AUTOSAVER.autosave(this.boardPanel.getBoard());
+    }
+
+    /**
+     * Shows the number buttons of the numbers not yet placed everywhere on the board and hides the others.
+     */
+    private void updateNumberButtons() {
+        SudokuBoard board = this.boardPanel.getBoard();
+        for (int number = 1; number <= this.numberButtons.size(); number++)
+            this.numberButtons.get(number-1).setVisible(board.getNumberOccurrence(number) < board.getSize());
+    }
+
+    /**
+     * Callback to be invoked when the save game menu item is clicked. Saves the game, with its undo and redo history,
+     * to a file chosen by the user; the file is written in the background.
+     */
+    private void saveClicked() {
+        JFileChooser chooser = new JFileChooser(new java.io.File("."));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        AUTOSAVER.save(this.boardPanel.getBoard(), chooser.getSelectedFile());
+        showMessage("Saved game to " + chooser.getSelectedFile().getName());
+    }
+
+    /**
+     * Callback to be invoked when the load game menu item is clicked. Continues a game saved to a file chosen by the
+     * user, in a new dialog if its size differs from the current board's.
+     */
+    private void loadClicked() {
+        JFileChooser chooser = new JFileChooser(new java.io.File("."));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        SudokuBoard game;
+        try {
+            game = GameAutosaver.load(chooser.getSelectedFile());
+        }
+        catch (java.io.IOException ex) {
+            this.msgBar.setForeground(Color.RED);
+            showMessage("Load failed: " + ex.getMessage());
+            return;
+        }
+        insertState = deleteState = false;
+        if (game.getSize() == this.boardPanel.getBoard().getSize()) {
+            boardRequest++;
+            waitingForBoard = false;
+            this.boardPanel.setBoard(game);
+            updateNumberButtons();
+            autosave();
+            showMessage("Loaded game from " + chooser.getSelectedFile().getName());
+            repaint();
+        }
+        else {
+            new SudokuDialog(DEFAULT_SIZE, game.getSize(), this.playableBoardsLists, this.difficultyIndexes,
+                    this.difficulty, game);
+            this.dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING));
+        }
+    }
+
     /**
      * Display the given string in the message bar.
      * @param msg Message to be displayed.
@@ -215,9 +340,10 @@ public class SudokuDialog extends JFrame {
         this.add(boardP, BorderLayout.CENTER);
 
         JPanel numButtons = new JPanel();
-        numButtons.setLayout(new BoxLayout(numButtons, BoxLayout.PAGE_AXIS));
-        numButtons.setBorder(BorderFactory.createEmptyBorder(10,0,0,19));
         int maxNumber = boardPanel.getBoard().getSize() + 1;
+        if (maxNumber > 10) numButtons.setLayout(new GridLayout(0, 2)); // Two columns so large boards' buttons fit
+        else numButtons.setLayout(new BoxLayout(numButtons, BoxLayout.PAGE_AXIS));
+        numButtons.setBorder(BorderFactory.createEmptyBorder(10,0,0,19));
         for (int i = 1; i <= maxNumber; i++) {
             int number = i % maxNumber;
             JButton button = new JButton(number == 0 ? "X" : String.valueOf(number));
@@ -251,8 +377,11 @@ public class SudokuDialog extends JFrame {
 
         JMenuItem[] menu1Items = {
                 new JMenuItem("New 9x9 Board"),
-                new JMenuItem("New 4x4 Board")
+                new JMenuItem("New 4x4 Board"),
+                new JMenuItem("New 16x16 Board"),
+                new JMenuItem("New 25x25 Board")
         };
+        int[] menu1Sizes = {9, 4, 16, 25};
         JMenuItem[] menu2Items = {
                 new JMenuItem("Check For Valid Solution"),
                 new JMenuItem("Solve Puzzle"),
@@ -261,6 +390,13 @@ public class SudokuDialog extends JFrame {
         };
         for (JMenuItem item: menu1Items) menu1.add(item);
         for (JMenuItem item: menu2Items) menu2.add(item);
+        JMenuItem saveItem = new JMenuItem("Save Game...");
+        JMenuItem loadItem = new JMenuItem("Load Game...");
+        saveItem.addActionListener(e -> saveClicked());
+        loadItem.addActionListener(e -> loadClicked());
+        menu1.addSeparator();
+        menu1.add(saveItem);
+        menu1.add(loadItem);
         menuBar.add(menu1);
         menuBar.add(menu2);
         this.setJMenuBar(menuBar);
@@ -269,12 +405,52 @@ public class SudokuDialog extends JFrame {
         /*  Menu Accelerators    */
         menu1.getItem(0).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_9, Event.CTRL_MASK));
         menu1.getItem(1).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_4, Event.CTRL_MASK));
+        menu1.getItem(2).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_1, Event.CTRL_MASK));
+        menu1.getItem(3).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_2, Event.CTRL_MASK));
 
         menu2.getItem(0).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_V, Event.CTRL_MASK));
         menu2.getItem(1).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, Event.CTRL_MASK));
         menu2.getItem(2).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_C, Event.CTRL_MASK));
         menu2.getItem(3).setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_T, Event.CTRL_MASK));
 
+        /*--------------------------------------------------------------------------------*/
+        /*  Solver engine selection submenu */
+        JMenu solverMenu = new JMenu("Solver Engine");
+        ButtonGroup solverGroup = new ButtonGroup();
+        for (SolverType type: SolverType.values()) {
+            JRadioButtonMenuItem item = new JRadioButtonMenuItem(type.getDisplayName(), type == solverType);
+            item.addActionListener(e -> {
+                solverType = type;
+                showMessage("Solver Engine: " + type.getDisplayName());
+            });
+            solverGroup.add(item);
+            solverMenu.add(item);
+        }
+        menu2.addSeparator();
+        menu2.add(solverMenu);
+
+        /*--------------------------------------------------------------------------------*/
+        /*  Difficulty selection submenu, used by new games of sizes with a bundled board list */
+        JMenu difficultyMenu = new JMenu("Difficulty");
+        ButtonGroup difficultyGroup = new ButtonGroup();
+        JRadioButtonMenuItem anyItem = new JRadioButtonMenuItem("Any", difficulty == null);
+        anyItem.addActionListener(e -> {
+            difficulty = null;
+            showMessage("Difficulty: Any");
+        });
+        difficultyGroup.add(anyItem);
+        difficultyMenu.add(anyItem);
+        for (Difficulty level: Difficulty.values()) {
+            JRadioButtonMenuItem item = new JRadioButtonMenuItem(level.getDisplayName(), level == difficulty);
+            item.addActionListener(e -> {
+                difficulty = level;
+                showMessage("Difficulty: " + level.getDisplayName());
+            });
+            difficultyGroup.add(item);
+            difficultyMenu.add(item);
+        }
+        menu2.add(difficultyMenu);
+
         /*--------------------------------------------------------------------------------*/
         /*  Toolbar Buttons */
     	JPanel newButtons = new JPanel(new FlowLayout());
@@ -303,14 +479,19 @@ public class SudokuDialog extends JFrame {
 
         /*--------------------------------------------------------------------------------*/
         /*  Size buttons    */
-        JButton[] sizeButtons = {new JButton("New 4x4"), new JButton("New 9x9")};
+        JButton[] sizeButtons = new JButton[BOARD_SIZES.length];
+        for (int i = 0; i < sizeButtons.length; i++)
+            sizeButtons[i] = new JButton(String.format("New %dx%d", BOARD_SIZES[i], BOARD_SIZES[i]));
 
         /*--------------------------------------------------------------------------------*/
         /*  Action Listener implementation used for menu1Items and new board buttons. Performs equivalent functionality  */
         ActionListener menu1_newboard_Listener = new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                newClicked((e.getSource() == sizeButtons[0] || e.getSource() == menu1Items[1]) ? 4 : 9 );
+                for (int i = 0; i < sizeButtons.length; i++)
+                    if (e.getSource() == sizeButtons[i]) newClicked(BOARD_SIZES[i]);
+                for (int i = 0; i < menu1Items.length; i++)
+                    if (e.getSource() == menu1Items[i]) newClicked(menu1Sizes[i]);
             }
         };
 
@@ -320,11 +501,17 @@ public class SudokuDialog extends JFrame {
             @Override
             public void actionPerformed(ActionEvent e) {
                 msgBar.setForeground(Color.BLUE);
+                if (waitingForBoard) {
+                    msgBar.setText("Please wait, the board is still being generated");
+                    return;
+                }
                 if (e.getSource().equals(tbButtons[1]) || e.getSource().equals(menu2Items[1])) { // Solve button
                     msgBar.setText("Solving Puzzle");
+                    boardPanel.getBoard().setSolver(solverType.create());
                     if (boardPanel.getBoard().solveBoard()) {
                         msgBar.setText("Puzzle Solved");
                         for (JButton numB: numberButtons) numB.setVisible(false);
+                        autosave();
                         repaint();
                     }
                     else
@@ -334,6 +521,7 @@ public class SudokuDialog extends JFrame {
                     msgBar.setText("Cleared Board");
                     boardPanel.getBoard().clearBoard();
                     for (JButton numB: numberButtons) numB.setVisible(true);
+                    autosave();
                     boardPanel.repaint();
                 }
                 else if (e.getSource().equals(tbButtons[3]) || e.getSource().equals(menu2Items[3])) { // Toggle button
@@ -346,13 +534,16 @@ public class SudokuDialog extends JFrame {
                     else tbButtons[3].setIcon(tbIcons[3]);
                     boardPanel.repaint();
                 }
-                else {
-                    if (SudokuBoard.copy(boardPanel.getBoard()).solveBoard()) { // Check for solution button
-                        System.out.println("Checking Board");
+                else { // Check for solution button
+                    System.out.println("Checking Board");
+                    SudokuBoard board = boardPanel.getBoard();
+                    board.setSolver(solverType.create());
+                    if (!board.trySolve())
+                        showMessage("No Valid Solution Exists");
+                    else if (board.hasUniqueSolution())
                         showMessage("A Valid Solution Exists");
-                    }
                     else
-                        showMessage("No Valid Solution Exists");
+                        showMessage("A Valid Solution Exists (Puzzle Is Not Unique)");
                 }
             }
         };
@@ -395,6 +586,8 @@ public class SudokuDialog extends JFrame {
         undoButton.addActionListener(e -> {
             SudokuBoard board = this.boardPanel.getBoard();
             board.undoMove();
+            updateNumberButtons();
+            autosave();
             msgBar.setText("Undo Move");
             repaint();
         });
@@ -402,6 +595,8 @@ public class SudokuDialog extends JFrame {
         redoButton.addActionListener(e -> {
             SudokuBoard board = this.boardPanel.getBoard();
             board.redoMove();
+            updateNumberButtons();
+            autosave();
             msgBar.setText("Redo Move");
             repaint();
         });
@@ -447,35 +642,145 @@ public class SudokuDialog extends JFrame {
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
-     * @param index
-     * @return
+     * Decodes a board from the playable board list of the current board size.
+     * @param index Index of the board in the list.
+     * @return  New board holding the puzzle at the given index.
      */
     private SudokuBoard getBoardAtIndex(int index) {
-        ArrayList<SudokuBoard> list;
+        return getBoardList().getBoard(index);
+    }
+
+    /**
+     * Gets the playable board list of the current board size.
+     * @return  Board list, or null if no list is bundled for the current size.
+     */
+    private PuzzleStore getBoardList() {
+        int list = getBoardListIndex();
+        return (list < 0) ? null : playableBoardsLists[list];
+    }
+
+    /**
+     * Gets the position of the current board size's list in the playable board lists.
+     * @return  List position, or -1 if no list is bundled for the current size.
+     */
+    private int getBoardListIndex() {
         switch (this.boardSize) {
             case 9:
-                list = playableBoardsLists[1];
-                break;
+                return 1;
             case 4:
-                list = playableBoardsLists[0];
-                break;
+                return 0;
             default:
-                list = playableBoardsLists[1];
+                return -1;
+        }
+    }
+
+    /**
+     * Shows the board of a new game. When no board is ready, an empty placeholder is shown and moves are refused
+     * while the puzzle pool generates one in the background; it is swapped in when it arrives. Boards are never
+     * generated on the event dispatch thread.
+     */
+    private void showNextBoard() {
+        int request = ++boardRequest;
+        SudokuBoard board = nextBoard();
+        waitingForBoard = (board == null);
+        if (waitingForBoard) {
+            board = new SudokuBoard(boardSize);
+            showMessage(String.format("Generating a new %dx%d board...", boardSize, boardSize));
+            PUZZLE_POOL.request(boardSize, difficulty,
+                    generated -> SwingUtilities.invokeLater(() -> boardArrived(request, generated)));
         }
-        return list.get(index);
+        this.boardPanel.setBoard(board);
+        updateNumberButtons();
+        autosave();
+        repaint();
+    }
+
+    /**
+     * Callback to be invoked on the event dispatch thread when the puzzle pool delivers a requested board.
+     *
+     * @param request   Board request the board was generated for.
+     * @param board     Generated board, or null if generation failed.
+     */
+    private void boardArrived(int request, SudokuBoard board) {
+        if (request != boardRequest || !isDisplayable()) return; // Board replaced since, or dialog closed
+        if (board == null) {
+            this.msgBar.setForeground(Color.RED);
+            showMessage("Board generation failed, press New to try again");
+            return;
+        }
+        waitingForBoard = false;
+        this.boardPanel.setBoard(board);
+        updateNumberButtons();
+        autosave();
+        showMessage("New board ready");
+        repaint();
+    }
+
+    /**
+     * Picks a random board of the current size and selected difficulty from its playable board list, or takes a
+     * generated unique-solution puzzle from the puzzle pool when no list is bundled for the size (16x16 and 25x25) or
+     * the list has no board of the selected difficulty. When the pool has no puzzle ready, a board of any difficulty
+     * is picked from the list, or none is returned for sizes without a list; nothing is generated here.
+     * @return  Board for a new game, or null if one must be requested from the pool.
+     */
+    private SudokuBoard nextBoard() {
+        PuzzleStore list = getBoardList();
+        if (list == null || list.isEmpty()) return PUZZLE_POOL.poll(boardSize, difficulty);
+        DifficultyIndex index = difficultyIndexes[getBoardListIndex()];
+        if (difficulty != null && index != null) {
+            int position = index.pick(difficulty, RANDOM);
+            if (position >= 0) return getBoardAtIndex(position);
+            SudokuBoard pooled = PUZZLE_POOL.poll(boardSize, difficulty);
+            if (pooled != null) return pooled;
+            showMessage("No " + difficulty.getDisplayName() + " boards ready, picked a board of any difficulty");
+        }
+        return getBoardAtIndex(RANDOM.nextInt(list.getCount()));
+    }
+
+    /**
+     * Creates the dialogs' random generator, seeded by the 'sudoku.seed' system property when it is set.
+     * @return  Random generator.
+     */
+    private static java.util.Random createRandom() {
+        Long seed = Long.getLong("sudoku.seed");
+        if (seed == null) return new java.util.Random();
+        System.out.println("Using seed " + seed);
+        return new java.util.Random(seed);
     }
 
     /**
      * @author Marco Soto
-     * //TODO: Documentation
+     * Reads the bundled board lists and their difficulty indexes, grading a list whose index file is missing, and
+     * opens the game, resuming the autosaved game if there is one. The lists are kept packed, in file order since the
+     * indexes refer to board positions; a missing or unreadable list leaves its size to the puzzle pool.
      */
     public static void main(String[] args) {
-        ArrayList[] boardLists = {
-                SudokuBoard.readBoardListFile(new java.io.File("src/Assets/boardList_4.txt"),4),
-                SudokuBoard.readBoardListFile(new java.io.File("src/Assets/boardList_9.txt"),9)
-        };
-        for (ArrayList list: boardLists) Collections.shuffle(list);
-        new SudokuDialog(boardLists);
+        int[] sizes = {4, 9};
+        PuzzleStore[] boardLists = new PuzzleStore[sizes.length];
+        DifficultyIndex[] difficultyIndexes = new DifficultyIndex[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            try {
+                boardLists[i] = PuzzleStore.readBoardListFile(new java.io.File("src/Assets/boardList_" + sizes[i] + ".txt"), sizes[i]);
+            }
+            catch (java.io.IOException ex) {
+                System.out.println(ex);
+                boardLists[i] = new PuzzleStore(sizes[i]);
+            }
+            java.io.File indexFile = new java.io.File("src/Assets/boardList_" + sizes[i] + "_index.txt");
+            difficultyIndexes[i] = indexFile.exists() ? DifficultyIndex.read(indexFile) : null;
+            if (difficultyIndexes[i] == null) difficultyIndexes[i] = DifficultyIndex.build(boardLists[i]);
+        }
+        for (int size: new int[] {16, 25}) PUZZLE_POOL.refill(size, null); // Sizes without a bundled list
+        SudokuBoard game = null;
+        if (AUTOSAVER.getFile().exists()) {
+            try {
+                game = GameAutosaver.load(AUTOSAVER.getFile());
+            }
+            catch (java.io.IOException ex) {
+                System.out.println(ex); // Start a new game instead
+            }
+        }
+        if (game == null) new SudokuDialog(boardLists, difficultyIndexes);
+        else new SudokuDialog(DEFAULT_SIZE, game.getSize(), boardLists, difficultyIndexes, null, game);
     }
 }